@@ -16,7 +16,12 @@ public class Admissions {
 
     // Aware model (adds equity and context)
     public static double awareScore(Applicant app) {
-        double score = blindScore(app);
+        return awareScore(app, blindScore(app));
+    }
+
+    // Aware score from an already computed blindScore(app)
+    public static double awareScore(Applicant app, double blind) {
+        double score = blind;
 
         if (app.income < 40000) score += 0.05;     // low-income boost
         if (app.firstGen) score += 0.05;           // first-generation bonus
@@ -25,4 +30,173 @@ public class Admissions {
         if (app.local) score += 0.03;              // local preference
         return Math.min(score, 1.0);               // cap score at 1.0
     }
+
+    // ---------- Columnar versions (row i of an ApplicantTable) ----------
+    // Same arithmetic, in the same order, as the Applicant versions above.
+    public static double blindScore(ApplicantTable t, int i) {
+        double score = 0.0;
+        score += (t.gpa[i] / 4.0) * 0.4;
+        score += (t.test[i] / 1600.0) * 0.3;
+        score += t.extra[i] * 0.1;
+        score += t.essay[i] * 0.1;
+        score += t.rec[i] * 0.1;
+        return score;
+    }
+
+    public static double awareScore(ApplicantTable t, int i) {
+        return awareScore(t, i, blindScore(t, i));
+    }
+
+    public static double awareScore(ApplicantTable t, int i, double blind) {
+        double score = blind;
+
+        if (t.income[i] < 40000) score += 0.05;
+        if (t.firstGen(i)) score += 0.05;
+        if (t.disability(i)) score += 0.03;
+        if (t.legacy(i)) score += 0.02;
+        if (t.local(i)) score += 0.03;
+        return Math.min(score, 1.0);
+    }
+
+
+    // ---------- Batch scoring ----------
+    // Scores out.length rows from primitive columns. Uses VectorScores (SIMD lanes via
+    // jdk.incubator.vector) when that class and module are present, else a scalar loop.
+    // Both do the same IEEE operations in the same order, so results match bit for bit.
+    interface Batch {
+        void blindScores(double[] gpa, int[] test, double[] extra, double[] essay, double[] rec,
+                         double[] out);
+
+        void awareScores(double[] gpa, int[] test, double[] extra, double[] essay, double[] rec,
+                         double[] income, byte[] flags, double[] out);
+
+        // Aware scores from blind ones: the boosts and cap only.
+        void awareScores(double[] blind, double[] income, byte[] flags, double[] out);
+    }
+
+    private static final Batch BATCH = loadBatch();
+
+    private static Batch loadBatch() {
+        if (!Boolean.parseBoolean(System.getProperty("admissions.vector", "true"))) return new ScalarBatch();
+        try {
+            return (Batch) Class.forName("VectorScores").getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return new ScalarBatch(); // not compiled, or run without --add-modules jdk.incubator.vector
+        }
+    }
+
+    static boolean isVectorized() {
+        return !(BATCH instanceof ScalarBatch);
+    }
+
+    public static void blindScores(double[] gpa, int[] test, double[] extra, double[] essay, double[] rec,
+                                   double[] out) {
+        AdmissionsEvents.ScoreBatch event = new AdmissionsEvents.ScoreBatch();
+        event.begin();
+        BATCH.blindScores(gpa, test, extra, essay, rec, out);
+        commit(event, "blind", out.length, isVectorized());
+    }
+
+    public static void awareScores(double[] gpa, int[] test, double[] extra, double[] essay, double[] rec,
+                                   double[] income, byte[] flags, double[] out) {
+        AdmissionsEvents.ScoreBatch event = new AdmissionsEvents.ScoreBatch();
+        event.begin();
+        BATCH.awareScores(gpa, test, extra, essay, rec, income, flags, out);
+        commit(event, "aware", out.length, isVectorized());
+    }
+
+    // Both models in one go: the blind scores are computed once and the aware ones derived
+    // from them, into the caller's arrays, so nothing is allocated per call.
+    public static void scoreBoth(double[] gpa, int[] test, double[] extra, double[] essay, double[] rec,
+                                 double[] income, byte[] flags, double[] blind, double[] aware) {
+        blindScores(gpa, test, extra, essay, rec, blind);
+        AdmissionsEvents.ScoreBatch event = new AdmissionsEvents.ScoreBatch();
+        event.begin();
+        BATCH.awareScores(blind, income, flags, aware);
+        commit(event, "aware", aware.length, isVectorized());
+    }
+
+    // The first n of a batch of streamed applicants, one object at a time (no columns to
+    // put in vector lanes): blind scores into blind, aware ones derived from them into aware.
+    public static void scoreBoth(Applicant[] apps, int n, double[] blind, double[] aware) {
+        AdmissionsEvents.ScoreBatch event = new AdmissionsEvents.ScoreBatch();
+        event.begin();
+        for (int i = 0; i < n; i++) blind[i] = blindScore(apps[i]);
+        commit(event, "blind", n, false);
+        event = new AdmissionsEvents.ScoreBatch();
+        event.begin();
+        for (int i = 0; i < n; i++) aware[i] = awareScore(apps[i], blind[i]);
+        commit(event, "aware", n, false);
+    }
+
+    public static void scoreBoth(ApplicantTable t, double[] blind, double[] aware) {
+        scoreBoth(t.gpa, t.test, t.extra, t.essay, t.rec, t.income, t.flags, blind, aware);
+    }
+
+    private static void commit(AdmissionsEvents.ScoreBatch event, String model, int rows, boolean vectorized) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.model = model;
+            event.rows = rows;
+            event.vectorized = vectorized;
+            event.commit();
+        }
+    }
+
+    // Aware scores from blind ones with no branches: the mask of ApplicantTable's five flag
+    // bits picks a row of boost amounts from boostTable (see ScoringPolicy.boostTable(),
+    // rebuilt whenever the boosts change), added in the same order as the if-chain above,
+    // so the built-in boosts give the same scores bit for bit.
+    public static void awareScores(double[] blind, byte[] flags, double[] boostTable, double cap,
+                                   double[] out) {
+        for (int i = 0; i < out.length; i++) {
+            out[i] = Math.min(ScoringPolicy.boost(blind[i], boostTable, flags[i] & 31), cap);
+        }
+    }
+
+    public static void blindScores(ApplicantTable t, double[] out) {
+        blindScores(t.gpa, t.test, t.extra, t.essay, t.rec, out);
+    }
+
+    public static void awareScores(ApplicantTable t, double[] out) {
+        awareScores(t.gpa, t.test, t.extra, t.essay, t.rec, t.income, t.flags, out);
+    }
+
+    static final class ScalarBatch implements Batch {
+        public void blindScores(double[] gpa, int[] test, double[] extra, double[] essay, double[] rec,
+                                double[] out) {
+            for (int i = 0; i < out.length; i++) out[i] = blind(gpa[i], test[i], extra[i], essay[i], rec[i]);
+        }
+
+        public void awareScores(double[] gpa, int[] test, double[] extra, double[] essay, double[] rec,
+                                double[] income, byte[] flags, double[] out) {
+            for (int i = 0; i < out.length; i++) {
+                out[i] = aware(blind(gpa[i], test[i], extra[i], essay[i], rec[i]), income[i], flags[i]);
+            }
+        }
+
+        public void awareScores(double[] blind, double[] income, byte[] flags, double[] out) {
+            for (int i = 0; i < out.length; i++) out[i] = aware(blind[i], income[i], flags[i]);
+        }
+
+        static double blind(double gpa, int test, double extra, double essay, double rec) {
+            double score = 0.0;
+            score += (gpa / 4.0) * 0.4;
+            score += (test / 1600.0) * 0.3;
+            score += extra * 0.1;
+            score += essay * 0.1;
+            score += rec * 0.1;
+            return score;
+        }
+
+        static double aware(double blind, double income, int flags) {
+            double score = blind;
+            if (income < 40000) score += 0.05;
+            if ((flags & ApplicantTable.FIRST_GEN) != 0) score += 0.05;
+            if ((flags & ApplicantTable.DISABILITY) != 0) score += 0.03;
+            if ((flags & ApplicantTable.LEGACY) != 0) score += 0.02;
+            if ((flags & ApplicantTable.LOCAL) != 0) score += 0.03;
+            return Math.min(score, 1.0);
+        }
+    }
 }
\ No newline at end of file
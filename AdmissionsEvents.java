@@ -0,0 +1,66 @@
+// AdmissionsEvents.java
+// Java Flight Recorder events for the admissions pipeline, category "Admissions".
+//   java -XX:StartFlightRecording=filename=run.jfr Main
+// Callers begin() an event, do the work, and fill in fields only if shouldCommit();
+// with recording off that check is a constant false and the event never escapes.
+
+import jdk.jfr.*;
+
+class AdmissionsEvents {
+
+    @Name("AdmissionsParseChunk")
+    @Label("Parse Chunk")
+    @Category("Admissions")
+    @Description("One record-aligned byte range of the applicants CSV parsed into a table")
+    static final class ParseChunk extends Event {
+        @Label("Start Offset") long start;
+        @Label("End Offset") long end;
+        @Label("Rows") long rows;
+        @Label("Malformed Rows") long malformed;
+    }
+
+    @Name("AdmissionsScoreBatch")
+    @Label("Score Batch")
+    @Category("Admissions")
+    @Description("One model scored over a column batch")
+    static final class ScoreBatch extends Event {
+        @Label("Model") String model;
+        @Label("Rows") long rows;
+        @Label("Vectorized") boolean vectorized;
+    }
+
+    @Name("AdmissionsRankPhase")
+    @Label("Rank Phase")
+    @Category("Admissions")
+    @Description("Ranking or admission of one or both models")
+    static final class RankPhase extends Event {
+        @Label("Model") String model;
+        @Label("Phase") String phase;
+        @Label("Rows") long rows;
+        @Label("K") int k;
+        @Label("Cutoff") double cutoff;
+    }
+
+    @Name("AdmissionsFairnessReport")
+    @Label("Fairness Report")
+    @Category("Admissions")
+    @Description("Group counts and parity report over all fairness dimensions")
+    static final class FairnessReport extends Event {
+        @Label("Rows") long rows;
+        @Label("Dimensions") String dimensions;
+        @Label("Blind Admits") long admitsBlind;
+        @Label("Aware Admits") long admitsAware;
+    }
+
+    @Name("AdmissionsMalformedRow")
+    @Label("Malformed Row")
+    @Category("Admissions")
+    @Description("A CSV record skipped by the parser")
+    @StackTrace(false)
+    static final class MalformedRow extends Event {
+        @Label("Offset") long offset;
+        @Label("Reason") String reason;
+        @Label("Fields") int fields;
+        @Label("Line") String line;
+    }
+}
@@ -0,0 +1,200 @@
+// ApplicantGenerator.java
+// Seeded synthetic applicants for scale testing, streamed straight to disk.
+//   java ApplicantGenerator --rows=100000000 --seed=42 --out=big.csv
+//        [--gpa=normal:3.2,0.5] [--test=normal:1200,200] [--income=lognormal:11,0.7]
+//        [--legacy=0.1] [--local=0.3] [--first-gen=0.3] [--disability=0.1]
+//        [--money=0.1] [--malformed=0.001]
+// Same seed and options always produce the same file.
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.util.SplittableRandom;
+
+public class ApplicantGenerator {
+
+    static final String HEADER = "Name,Age,Geography,Ethnicity,Income ($),Legacy,Local,GPA,Test,Extra,Essay,"
+            + "Letter of Recommendation,First-Gen,Disability";
+
+    private static final String[] FIRST = {
+        "Alice", "Bob", "Carlos", "Diana", "Fatima", "George", "Hannah", "Ishaan", "Jasmine", "Liam",
+        "Maya", "Noah", "Olivia", "Priya", "Quinn", "Rosa", "Samuel", "Tariq", "Uma", "Wei"
+    };
+    private static final String[] LAST = {
+        "Stark", "Parker", "Rivera", "Chen", "Al-Sayed", "Johnson", "Miller", "Singh", "Okafor", "Wang",
+        "Garcia", "Nguyen", "Smith", "Kim", "Lopez", "Brown", "Patel", "Cohen", "Ivanova", "Mensah"
+    };
+    private static final String[] GEOGRAPHIES = {
+        "\"Jackson, MS\"", "\"Boston, MA\"", "\"Phoenix, AZ\"", "\"Chicago, IL\"", "\"Los Angeles, CA\"",
+        "\"New York, NY\"", "\"Fargo, ND\"", "\"Atlanta, GA\"", "\"Oakland, CA\"", "\"Toronto, Canada\""
+    };
+    private static final String[] ETHNICITIES = {
+        "White", "Black", "Latino", "Asian", "Indian", "Middle Eastern", "Native American", "Pacific Islander"
+    };
+
+    // ---------- Configuration ----------
+    // normal:mean,sd | uniform:lo,hi | lognormal:mu,sigma, clamped to [min, max]
+    static final class Dist {
+        final String kind;
+        final double a, b, min, max;
+
+        Dist(String spec, double min, double max) {
+            int colon = spec.indexOf(':');
+            String[] p = spec.substring(colon + 1).split(",");
+            this.kind = spec.substring(0, colon);
+            this.a = Double.parseDouble(p[0]);
+            this.b = Double.parseDouble(p[1]);
+            this.min = min;
+            this.max = max;
+            if (!kind.equals("normal") && !kind.equals("uniform") && !kind.equals("lognormal")) {
+                throw new IllegalArgumentException("Unknown distribution: " + spec);
+            }
+        }
+
+        double sample(SplittableRandom r) {
+            double v;
+            switch (kind) {
+                case "uniform": v = a + (b - a) * r.nextDouble(); break;
+                case "lognormal": v = Math.exp(a + b * gaussian(r)); break;
+                default: v = a + b * gaussian(r);
+            }
+            return Math.max(min, Math.min(max, v));
+        }
+    }
+
+    static final class Config {
+        long rows = 1_000_000;
+        long seed = 42;
+        Dist gpa = new Dist("normal:3.2,0.5", 0.0, 4.0);
+        Dist test = new Dist("normal:1200,200", 400, 1600);
+        Dist income = new Dist("lognormal:11,0.7", 0, 5_000_000);
+        double legacy = 0.1, local = 0.3, firstGen = 0.3, disability = 0.1;
+        double money = 0.1;       // share of incomes written as "$12,345"
+        double malformed = 0.0;   // share of rows that readApplicants must skip
+    }
+
+    public static void main(String[] args) throws IOException {
+        Config c = new Config();
+        String out = "applicants.csv";
+        for (String arg : args) {
+            int eq = arg.indexOf('=');
+            String key = eq < 0 ? arg : arg.substring(0, eq), value = eq < 0 ? "" : arg.substring(eq + 1);
+            switch (key) {
+                case "--rows":       c.rows = Long.parseLong(value); break;
+                case "--seed":       c.seed = Long.parseLong(value); break;
+                case "--out":        out = value; break;
+                case "--gpa":        c.gpa = new Dist(value, 0.0, 4.0); break;
+                case "--test":       c.test = new Dist(value, 400, 1600); break;
+                case "--income":     c.income = new Dist(value, 0, 5_000_000); break;
+                case "--legacy":     c.legacy = Double.parseDouble(value); break;
+                case "--local":      c.local = Double.parseDouble(value); break;
+                case "--first-gen":  c.firstGen = Double.parseDouble(value); break;
+                case "--disability": c.disability = Double.parseDouble(value); break;
+                case "--money":      c.money = Double.parseDouble(value); break;
+                case "--malformed":  c.malformed = Double.parseDouble(value); break;
+                default: throw new IllegalArgumentException("Unknown option: " + arg);
+            }
+        }
+        writeCsv(new File(out), c);
+        System.out.printf("Wrote %d rows to %s%n", c.rows, out);
+    }
+
+    // ---------- CSV output ----------
+    // One reusable StringBuilder per row into a buffered stream, so memory stays
+    // bounded no matter how many rows are written.
+    static void writeCsv(File file, Config c) throws IOException {
+        try (OutputStream os = new BufferedOutputStream(new FileOutputStream(file), 1 << 16)) {
+            writeCsv(os, c);
+        }
+    }
+
+    static void writeCsv(OutputStream os, Config c) throws IOException {
+        SplittableRandom r = new SplittableRandom(c.seed);
+        StringBuilder sb = new StringBuilder(256);
+        sb.append(HEADER).append('\n');
+        for (long i = 0; i < c.rows; i++) {
+            row(sb, i, r, c);
+            if (sb.length() > 1 << 15) flush(sb, os);
+        }
+        flush(sb, os);
+    }
+
+    private static void flush(StringBuilder sb, OutputStream os) throws IOException {
+        os.write(sb.toString().getBytes(StandardCharsets.UTF_8));
+        sb.setLength(0);
+    }
+
+    private static void row(StringBuilder sb, long i, SplittableRandom r, Config c) {
+        // Draw everything up front so the random sequence doesn't depend on malformation.
+        String first = FIRST[r.nextInt(FIRST.length)], last = LAST[r.nextInt(LAST.length)];
+        int age = 17 + r.nextInt(9);
+        String geo = GEOGRAPHIES[r.nextInt(GEOGRAPHIES.length)];
+        String eth = ETHNICITIES[r.nextInt(ETHNICITIES.length)];
+        long income = Math.round(c.income.sample(r));
+        boolean money = r.nextDouble() < c.money;
+        boolean legacy = r.nextDouble() < c.legacy, local = r.nextDouble() < c.local;
+        double gpa = c.gpa.sample(r);
+        long test = Math.round(c.test.sample(r));
+        double extra = r.nextDouble(), essay = r.nextDouble(), rec = r.nextDouble();
+        boolean firstGen = r.nextDouble() < c.firstGen, disability = r.nextDouble() < c.disability;
+        double bad = r.nextDouble();
+        int badKind = r.nextInt(3);
+
+        sb.append(first).append(' ').append(last).append(' ').append(i).append(',');
+        if (bad < c.malformed && badKind == 0) {   // short row: skipped as "short row" and written to the rejects file
+            sb.append(age).append(',').append(geo).append('\n');
+            return;
+        }
+        if (bad < c.malformed && badKind == 1) sb.append("unknown"); // bad int
+        else sb.append(age);
+        sb.append(',').append(geo).append(',').append(eth).append(',');
+        if (money) {
+            sb.append("\"$");
+            appendThousands(sb, income);
+            sb.append('"');
+        } else {
+            sb.append(income);
+        }
+        sb.append(',').append(yesNo(legacy)).append(',').append(yesNo(local)).append(',');
+        if (bad < c.malformed && badKind == 2) sb.append("n/a"); // bad double
+        else appendFixed(sb, gpa, 2);
+        sb.append(',').append(test).append(',');
+        appendFixed(sb, extra, 2);
+        sb.append(',');
+        appendFixed(sb, essay, 2);
+        sb.append(',');
+        appendFixed(sb, rec, 2);
+        sb.append(',').append(yesNo(firstGen)).append(',').append(yesNo(disability)).append('\n');
+    }
+
+    private static String yesNo(boolean b) {
+        return b ? "Yes" : "No";
+    }
+
+    // Non-negative v to 'decimals' places without going through Formatter.
+    private static void appendFixed(StringBuilder sb, double v, int decimals) {
+        long pow = decimals == 2 ? 100 : (long) Math.pow(10, decimals);
+        long units = Math.round(v * pow);
+        sb.append(units / pow).append('.');
+        long frac = units % pow;
+        for (long p = pow / 10; p > 0; p /= 10) sb.append((char) ('0' + (frac / p) % 10));
+    }
+
+    private static void appendThousands(StringBuilder sb, long v) {
+        if (v >= 1000) {
+            appendThousands(sb, v / 1000);
+            sb.append(',');
+            long rest = v % 1000;
+            if (rest < 100) sb.append('0');
+            if (rest < 10) sb.append('0');
+            sb.append(rest);
+        } else {
+            sb.append(v);
+        }
+    }
+
+    // Box-Muller; SplittableRandom has no nextGaussian on this JDK
+    private static double gaussian(SplittableRandom r) {
+        double u = 1.0 - r.nextDouble(), v = r.nextDouble();
+        return Math.sqrt(-2.0 * Math.log(u)) * Math.cos(2 * Math.PI * v);
+    }
+}
@@ -0,0 +1,269 @@
+// ApplicantSnapshot.java
+// Versioned binary copy of a parsed applicants CSV, so later runs skip the text parse.
+//
+// Layout (little-endian):
+//   magic "APSN", int version,
+//   long source size, long source mtime (ms), int source CRC32C, int rows,
+//   3 string dictionaries (name, geography, ethnicity): int count, then per entry int length + UTF-8 bytes,
+//   columns of 'rows' values: int name, int age, int geography, int ethnicity, double income,
+//   double gpa, int test, double extra, double essay, double rec, byte flags.
+// A snapshot is used only if the source size matches and either its mtime or its checksum does.
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.zip.CRC32C;
+
+public class ApplicantSnapshot {
+
+    static final int MAGIC = 0x4E535041; // "APSN" read little-endian
+    static final int VERSION = 2; // 2: flags carry LOW_INCOME
+
+    private static final long WINDOW = 1L << 30;
+
+    // Loads from the snapshot when it is current, else parses the CSV and (re)writes the snapshot.
+    public static ApplicantTable load(String csv, String snapshot, int parseThreads, RejectSink rejects) {
+        Path src = Paths.get(csv), snap = Paths.get(snapshot);
+        try {
+            if (Files.exists(snap) && Files.exists(src)) {
+                ApplicantTable t = read(snap, src);
+                if (t != null) return t;
+            }
+        } catch (IOException e) {
+            System.out.println("Ignoring unreadable snapshot " + snapshot + ": " + e.getMessage());
+        }
+        ApplicantTable t = MappedCsvReader.readTable(csv, parseThreads, rejects);
+        if (t.size() > 0) {
+            try {
+                write(snap, src, t);
+            } catch (IOException e) {
+                System.out.println("Could not write snapshot " + snapshot + ": " + e.getMessage());
+            }
+        }
+        return t;
+    }
+
+    // ---------- Source stamp ----------
+    static long mtime(Path src) throws IOException {
+        return Files.getLastModifiedTime(src).toMillis();
+    }
+
+    static int checksum(Path src) throws IOException {
+        CRC32C crc = new CRC32C();
+        try (FileChannel ch = FileChannel.open(src, StandardOpenOption.READ)) {
+            long size = ch.size();
+            for (long at = 0; at < size; at += WINDOW) {
+                crc.update(ch.map(FileChannel.MapMode.READ_ONLY, at, Math.min(WINDOW, size - at)));
+            }
+        }
+        return (int) crc.getValue();
+    }
+
+    // ---------- Writing ----------
+    static void write(Path snap, Path src, ApplicantTable t) throws IOException {
+        Path tmp = snap.resolveSibling(snap.getFileName() + ".tmp");
+        int n = t.size();
+        Map<String, Integer> nameCodes = new HashMap<>();
+        List<String> names = new ArrayList<>();
+        int[] nameCol = new int[n];
+        for (int i = 0; i < n; i++) {
+            Integer code = nameCodes.get(t.name[i]);
+            if (code == null) {
+                code = names.size();
+                nameCodes.put(t.name[i], code);
+                names.add(t.name[i]);
+            }
+            nameCol[i] = code;
+        }
+
+        try (FileChannel ch = FileChannel.open(tmp, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            Out out = new Out(ch);
+            out.putInt(MAGIC);
+            out.putInt(VERSION);
+            out.putLong(Files.size(src));
+            out.putLong(mtime(src));
+            out.putInt(checksum(src));
+            out.putInt(n);
+            out.strings(names.toArray(new String[0]));
+            out.strings(t.geographyDict.values());
+            out.strings(t.ethnicityDict.values());
+            out.ints(nameCol, n);
+            out.ints(t.age, n);
+            out.ints(t.geography, n);
+            out.ints(t.ethnicity, n);
+            out.doubles(t.income, n);
+            out.doubles(t.gpa, n);
+            out.ints(t.test, n);
+            out.doubles(t.extra, n);
+            out.doubles(t.essay, n);
+            out.doubles(t.rec, n);
+            out.bytes(t.flags, n);
+            out.flush();
+        }
+        Files.move(tmp, snap, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    private static final class Out {
+        final FileChannel ch;
+        final ByteBuffer buf = ByteBuffer.allocateDirect(1 << 20).order(ByteOrder.LITTLE_ENDIAN);
+
+        Out(FileChannel ch) {
+            this.ch = ch;
+        }
+
+        void room(int n) throws IOException {
+            if (buf.remaining() < n) flush();
+        }
+
+        void flush() throws IOException {
+            buf.flip();
+            while (buf.hasRemaining()) ch.write(buf);
+            buf.clear();
+        }
+
+        void putInt(int v) throws IOException { room(4); buf.putInt(v); }
+        void putLong(long v) throws IOException { room(8); buf.putLong(v); }
+
+        void ints(int[] a, int n) throws IOException {
+            for (int i = 0; i < n; i++) putInt(a[i]);
+        }
+
+        void doubles(double[] a, int n) throws IOException {
+            for (int i = 0; i < n; i++) {
+                room(8);
+                buf.putDouble(a[i]);
+            }
+        }
+
+        void bytes(byte[] a, int n) throws IOException {
+            for (int i = 0; i < n; ) {
+                if (!buf.hasRemaining()) flush();
+                int k = Math.min(buf.remaining(), n - i);
+                buf.put(a, i, k);
+                i += k;
+            }
+        }
+
+        void strings(String[] s) throws IOException {
+            putInt(s.length);
+            for (String v : s) {
+                byte[] b = v.getBytes(StandardCharsets.UTF_8);
+                putInt(b.length);
+                bytes(b, b.length);
+            }
+        }
+    }
+
+    // ---------- Reading ----------
+    // Null when the snapshot is stale or from another format version.
+    static ApplicantTable read(Path snap, Path src) throws IOException {
+        try (FileChannel ch = FileChannel.open(snap, StandardOpenOption.READ)) {
+            In in = new In(ch);
+            if (in.getInt() != MAGIC || in.getInt() != VERSION) return null;
+            long size = in.getLong(), mtime = in.getLong();
+            int crc = in.getInt();
+            if (size != Files.size(src)) return null;
+            if (mtime != mtime(src) && crc != checksum(src)) return null;
+
+            int n = in.getInt();
+            String[] names = in.strings();
+            String[] geographies = in.strings();
+            String[] ethnicities = in.strings();
+            ApplicantTable t = new ApplicantTable(n);
+            for (String g : geographies) t.geographyDict.encode(g);
+            for (String e : ethnicities) t.ethnicityDict.encode(e);
+            int[] nameCol = in.ints(n);
+            for (int i = 0; i < n; i++) t.name[i] = names[nameCol[i]];
+            t.age = in.ints(n);
+            t.geography = in.ints(n);
+            t.ethnicity = in.ints(n);
+            t.income = in.doubles(n);
+            t.gpa = in.doubles(n);
+            t.test = in.ints(n);
+            t.extra = in.doubles(n);
+            t.essay = in.doubles(n);
+            t.rec = in.doubles(n);
+            t.flags = in.bytes(n);
+            t.size = n;
+            return t;
+        }
+    }
+
+    // Sequential reader over windows of the mapped snapshot.
+    private static final class In {
+        final FileChannel ch;
+        final long size;
+        MappedByteBuffer buf;
+        long base;
+
+        In(FileChannel ch) throws IOException {
+            this.ch = ch;
+            this.size = ch.size();
+            map(0);
+        }
+
+        private void map(long at) throws IOException {
+            base = at;
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, at, Math.min(WINDOW, size - at));
+            buf.order(ByteOrder.LITTLE_ENDIAN);
+        }
+
+        // Makes at least n bytes (n <= WINDOW) readable from the current position.
+        private void need(int n) throws IOException {
+            if (buf.remaining() >= n) return;
+            long at = base + buf.position();
+            if (size - at < n) throw new EOFException("Truncated snapshot");
+            map(at);
+        }
+
+        int getInt() throws IOException { need(4); return buf.getInt(); }
+        long getLong() throws IOException { need(8); return buf.getLong(); }
+
+        int[] ints(int n) throws IOException {
+            int[] a = new int[n];
+            for (int i = 0; i < n; ) {
+                need(4);
+                int k = Math.min(n - i, buf.remaining() / 4);
+                buf.asIntBuffer().get(a, i, k);
+                buf.position(buf.position() + 4 * k);
+                i += k;
+            }
+            return a;
+        }
+
+        double[] doubles(int n) throws IOException {
+            double[] a = new double[n];
+            for (int i = 0; i < n; ) {
+                need(8);
+                int k = Math.min(n - i, buf.remaining() / 8);
+                buf.asDoubleBuffer().get(a, i, k);
+                buf.position(buf.position() + 8 * k);
+                i += k;
+            }
+            return a;
+        }
+
+        byte[] bytes(int n) throws IOException {
+            byte[] a = new byte[n];
+            for (int i = 0; i < n; ) {
+                need(1);
+                int k = Math.min(n - i, buf.remaining());
+                buf.get(a, i, k);
+                i += k;
+            }
+            return a;
+        }
+
+        String[] strings() throws IOException {
+            String[] s = new String[getInt()];
+            for (int i = 0; i < s.length; i++) s[i] = new String(bytes(getInt()), StandardCharsets.UTF_8);
+            return s;
+        }
+    }
+}
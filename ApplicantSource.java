@@ -0,0 +1,247 @@
+// ApplicantSource.java
+// Lazily streams applicants out of a mapped CSV file instead of building a List.
+// Compressed files stream too, block by block in file order, without splitting.
+// Skipped rows go to a RejectSink source; by default one that only counts.
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
+
+public class ApplicantSource implements AutoCloseable {
+    private final RandomAccessFile raf;
+    private final FileChannel ch;
+    private final long start, end;
+    private final CsvColumns columns;
+    private final CompressedInput in; // set instead of raf for compressed files
+    private final long firstLine;
+    private final RejectSink.Source rejects;
+
+    private ApplicantSource(RandomAccessFile raf, RejectSink.Source rejects) throws IOException {
+        this.raf = raf;
+        this.ch = raf.getChannel();
+        this.start = MappedCsvReader.nextRecord(ch, 0); // skip header
+        this.end = ch.size();
+        this.columns = MappedCsvReader.header(ch);
+        this.in = null;
+        this.firstLine = MappedCsvReader.firstLine(ch, start);
+        this.rejects = rejects;
+    }
+
+    private ApplicantSource(CompressedInput in, RejectSink.Source rejects) {
+        this.raf = null;
+        this.ch = null;
+        this.start = this.end = 0;
+        this.columns = CsvColumns.resolve(in.header());
+        this.in = in;
+        this.firstLine = in.firstLine();
+        this.rejects = rejects;
+    }
+
+    public static ApplicantSource open(String filename) throws IOException {
+        return open(filename, 1);
+    }
+
+    // threads only matter for compressed input: gzip members inflated in parallel.
+    public static ApplicantSource open(String filename, int threads) throws IOException {
+        return open(filename, threads, new RejectSink().source(filename));
+    }
+
+    public static ApplicantSource open(String filename, int threads, RejectSink.Source rejects) throws IOException {
+        if (CompressedInput.isCompressed(filename)) {
+            return new ApplicantSource(CompressedInput.open(filename, threads), rejects);
+        }
+        return new ApplicantSource(new RandomAccessFile(filename, "r"), rejects);
+    }
+
+    public Stream<Applicant> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    public Stream<Applicant> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    public Spliterator<Applicant> spliterator() {
+        return in != null ? new Blocks() : new Split(start, end, firstLine);
+    }
+
+    // Rows skipped so far: too few columns or a bad number.
+    public int malformed() {
+        return rejects.rejected();
+    }
+
+    @Override
+    public void close() throws IOException {
+        if (in != null) in.close();
+        else raf.close();
+    }
+
+    // One cursor's records, reported as a ParseChunk once it runs out (or is split off), with
+    // a MalformedRow per skipped record as MappedCsvReader.parse does. The stream's consumer
+    // runs between records, so the chunk's duration covers its work too. Unnumbered cursors
+    // report their rejects with line 0 (unknown).
+    private final class Chunk {
+        final MappedCsvReader.Cursor cursor;
+        private final boolean numbered;
+        private final AdmissionsEvents.ParseChunk event = new AdmissionsEvents.ParseChunk();
+        private final long start;
+        private long rows, malformed;
+        private boolean done;
+
+        Chunk(MappedCsvReader.Cursor cursor, boolean numbered) {
+            this.cursor = cursor;
+            this.numbered = numbered;
+            this.start = cursor.pos;
+            event.begin();
+        }
+
+        // Next well-formed applicant, or null once the cursor is exhausted.
+        Applicant next() throws IOException {
+            while (!done && cursor.next()) {
+                if (cursor.isShort()) { // skip malformed
+                    reject(RejectSink.SHORT_ROW);
+                    continue;
+                }
+                try {
+                    Applicant a = cursor.toApplicant();
+                    rows++;
+                    return a;
+                } catch (NumberFormatException e) {
+                    reject(cursor.badNumber());
+                }
+            }
+            finish(cursor.end);
+            return null;
+        }
+
+        private void reject(int reason) {
+            malformed++;
+            String line = cursor.lineText();
+            rejects.reject(numbered ? cursor.line : 0, cursor.base + cursor.recStart, reason, line);
+            MappedCsvReader.malformedRow(cursor, RejectSink.REASONS[reason], line);
+        }
+
+        void finish(long end) {
+            if (done) return;
+            done = true;
+            event.end();
+            if (event.shouldCommit()) {
+                event.start = start;
+                event.end = end;
+                event.rows = rows;
+                event.malformed = malformed;
+                event.commit();
+            }
+        }
+    }
+
+    // One record-aligned byte range. Splitting hands off the front half (at the
+    // next line break past the midpoint) so encounter order stays file order; the
+    // back half no longer knows its line numbers.
+    private final class Split implements Spliterator<Applicant> {
+        private long from;
+        private final long to;
+        private long line;                     // line number at 'from', or 0 if unknown
+        private Chunk chunk;                   // opened on first advance
+
+        Split(long from, long to, long line) {
+            this.from = from;
+            this.to = to;
+            this.line = line;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Applicant> action) {
+            try {
+                if (chunk == null) {
+                    MappedCsvReader.Cursor cursor = new MappedCsvReader.Cursor(ch, from, to, columns);
+                    cursor.nextLine = Math.max(line, 1);
+                    chunk = new Chunk(cursor, line > 0);
+                }
+                Applicant a = chunk.next();
+                if (a == null) return false;
+                action.accept(a);
+                return true;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Spliterator<Applicant> trySplit() {
+            long pos = chunk == null ? from : chunk.cursor.pos;
+            if (to - pos < 2 * MappedCsvReader.MIN_CHUNK) return null;
+            try {
+                long mid = MappedCsvReader.nextRecord(ch, pos + (to - pos) / 2);
+                if (mid >= to) return null;
+                Split prefix = new Split(pos, mid, chunk == null || line == 0 ? line : chunk.cursor.nextLine);
+                if (chunk != null) chunk.finish(pos);
+                from = mid;
+                line = 0;
+                chunk = null;
+                return prefix;
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public long estimateSize() {
+            return (chunk == null ? to - from : to - chunk.cursor.pos); // bytes left; rows are fewer
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+
+    // Decompressed blocks in order; a stream that can only be read front to back doesn't split.
+    private final class Blocks implements Spliterator<Applicant> {
+        private Chunk chunk;
+        private long line = firstLine;
+
+        @Override
+        public boolean tryAdvance(Consumer<? super Applicant> action) {
+            try {
+                while (true) {
+                    if (chunk == null) {
+                        ByteBuffer block = in.next();
+                        if (block == null) return false;
+                        MappedCsvReader.Cursor cursor = new MappedCsvReader.Cursor(block, in.offset(), columns);
+                        cursor.nextLine = line;
+                        chunk = new Chunk(cursor, true);
+                    }
+                    Applicant a = chunk.next();
+                    if (a != null) {
+                        action.accept(a);
+                        return true;
+                    }
+                    line = chunk.cursor.nextLine;
+                    chunk = null;
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        @Override
+        public Spliterator<Applicant> trySplit() {
+            return null;
+        }
+
+        @Override
+        public long estimateSize() {
+            return Long.MAX_VALUE;
+        }
+
+        @Override
+        public int characteristics() {
+            return ORDERED | NONNULL | IMMUTABLE;
+        }
+    }
+}
@@ -0,0 +1,209 @@
+// ApplicantTable.java
+// Column-oriented applicant store: one primitive array per field instead of one
+// object per applicant. Applicant remains available as a row view via row(i).
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+public class ApplicantTable {
+
+    // Bits of the packed boolean column. LOW_INCOME is derived at load time (income below
+    // LOW_INCOME_BELOW, Admissions' threshold) so the five boost conditions form one mask.
+    static final int LEGACY = 1, LOCAL = 2, FIRST_GEN = 4, DISABILITY = 8, LOW_INCOME = 16;
+    static final double LOW_INCOME_BELOW = 40000;
+
+    int size;
+    String[] name;
+    int[] age;
+    int[] geography;      // codes into geographyDict
+    int[] ethnicity;      // codes into ethnicityDict
+    double[] income;
+    double[] gpa;
+    int[] test;
+    double[] extra;
+    double[] essay;
+    double[] rec;
+    byte[] flags;         // LEGACY | LOCAL | FIRST_GEN | DISABILITY | LOW_INCOME
+    final StringDict geographyDict = new StringDict();
+    final StringDict ethnicityDict = new StringDict();
+
+    public ApplicantTable() {
+        this(16);
+    }
+
+    public ApplicantTable(int capacity) {
+        capacity = Math.max(capacity, 1);
+        name = new String[capacity];
+        age = new int[capacity];
+        geography = new int[capacity];
+        ethnicity = new int[capacity];
+        income = new double[capacity];
+        gpa = new double[capacity];
+        test = new int[capacity];
+        extra = new double[capacity];
+        essay = new double[capacity];
+        rec = new double[capacity];
+        flags = new byte[capacity];
+    }
+
+    public static ApplicantTable of(Collection<Applicant> apps) {
+        ApplicantTable t = new ApplicantTable(apps.size());
+        for (Applicant a : apps) t.add(a);
+        return t;
+    }
+
+    // Appends the parts in order; dictionary codes are re-issued in first-seen order.
+    public static ApplicantTable concat(List<ApplicantTable> parts) {
+        int n = 0;
+        for (ApplicantTable p : parts) n += p.size;
+        ApplicantTable t = new ApplicantTable(n);
+        for (ApplicantTable p : parts) {
+            int[] geo = p.geographyDict.remapInto(t.geographyDict);
+            int[] eth = p.ethnicityDict.remapInto(t.ethnicityDict);
+            int at = t.size;
+            System.arraycopy(p.name, 0, t.name, at, p.size);
+            System.arraycopy(p.age, 0, t.age, at, p.size);
+            System.arraycopy(p.income, 0, t.income, at, p.size);
+            System.arraycopy(p.gpa, 0, t.gpa, at, p.size);
+            System.arraycopy(p.test, 0, t.test, at, p.size);
+            System.arraycopy(p.extra, 0, t.extra, at, p.size);
+            System.arraycopy(p.essay, 0, t.essay, at, p.size);
+            System.arraycopy(p.rec, 0, t.rec, at, p.size);
+            System.arraycopy(p.flags, 0, t.flags, at, p.size);
+            for (int i = 0; i < p.size; i++) {
+                t.geography[at + i] = geo[p.geography[i]];
+                t.ethnicity[at + i] = eth[p.ethnicity[i]];
+            }
+            t.size += p.size;
+        }
+        return t;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public void add(Applicant a) {
+        add(a.name, a.age, geographyDict.encode(a.geography), ethnicityDict.encode(a.ethnicity), a.income,
+            a.legacy, a.local, a.gpa, a.test, a.extra, a.essay, a.rec, a.firstGen, a.disability);
+    }
+
+    // geography/ethnicity are codes already issued by this table's dictionaries
+    void add(String name, int age, int geography, int ethnicity, double income,
+             boolean legacy, boolean local, double gpa, int test, double extra,
+             double essay, double rec, boolean firstGen, boolean disability) {
+        if (size == this.name.length) grow();
+        int i = size++;
+        this.name[i] = name;
+        this.age[i] = age;
+        this.geography[i] = geography;
+        this.ethnicity[i] = ethnicity;
+        this.income[i] = income;
+        this.gpa[i] = gpa;
+        this.test[i] = test;
+        this.extra[i] = extra;
+        this.essay[i] = essay;
+        this.rec[i] = rec;
+        this.flags[i] = (byte) ((legacy ? LEGACY : 0) | (local ? LOCAL : 0)
+                | (firstGen ? FIRST_GEN : 0) | (disability ? DISABILITY : 0)
+                | (income < LOW_INCOME_BELOW ? LOW_INCOME : 0));
+    }
+
+    private void grow() {
+        int cap = name.length * 2;
+        name = Arrays.copyOf(name, cap);
+        age = Arrays.copyOf(age, cap);
+        geography = Arrays.copyOf(geography, cap);
+        ethnicity = Arrays.copyOf(ethnicity, cap);
+        income = Arrays.copyOf(income, cap);
+        gpa = Arrays.copyOf(gpa, cap);
+        test = Arrays.copyOf(test, cap);
+        extra = Arrays.copyOf(extra, cap);
+        essay = Arrays.copyOf(essay, cap);
+        rec = Arrays.copyOf(rec, cap);
+        flags = Arrays.copyOf(flags, cap);
+    }
+
+    public boolean legacy(int i)     { return (flags[i] & LEGACY) != 0; }
+    public boolean local(int i)      { return (flags[i] & LOCAL) != 0; }
+    public boolean firstGen(int i)   { return (flags[i] & FIRST_GEN) != 0; }
+    public boolean disability(int i) { return (flags[i] & DISABILITY) != 0; }
+    public String geography(int i)   { return geographyDict.get(geography[i]); }
+    public String ethnicity(int i)   { return ethnicityDict.get(ethnicity[i]); }
+
+    // Materializes row i as an Applicant (a copy; edits don't write back).
+    public Applicant row(int i) {
+        return new Applicant(name[i], age[i], geography(i), ethnicity(i), income[i],
+                legacy(i), local(i), gpa[i], test[i], extra[i], essay[i], rec[i],
+                firstGen(i), disability(i));
+    }
+
+    // ---------- Dictionary encoding ----------
+    // Small string dictionary keyed by UTF-8 bytes, so the byte-level reader can look
+    // a value up without decoding it; a String is only built for a new entry.
+    static final class StringDict {
+        private String[] values = new String[16];
+        private byte[][] keys = new byte[16][];
+        private int[] slots = new int[32];   // code + 1, 0 = empty
+        private int count;
+
+        int size() {
+            return count;
+        }
+
+        String get(int code) {
+            return values[code];
+        }
+
+        String[] values() {
+            return Arrays.copyOf(values, count);
+        }
+
+        int encode(String s) {
+            byte[] b = s.getBytes(StandardCharsets.UTF_8);
+            return encode(b, 0, b.length);
+        }
+
+        int encode(byte[] b, int off, int len) {
+            int mask = slots.length - 1;
+            int h = hash(b, off, len) & mask;
+            while (slots[h] != 0) {
+                byte[] k = keys[slots[h] - 1];
+                if (Arrays.equals(k, 0, k.length, b, off, off + len)) return slots[h] - 1;
+                h = (h + 1) & mask;
+            }
+            if (count == values.length) {
+                values = Arrays.copyOf(values, count * 2);
+                keys = Arrays.copyOf(keys, count * 2);
+            }
+            keys[count] = Arrays.copyOfRange(b, off, off + len);
+            values[count] = new String(b, off, len, StandardCharsets.UTF_8);
+            slots[h] = ++count;
+            if (count * 2 > slots.length) rehash();
+            return count - 1;
+        }
+
+        // Codes of this dictionary translated to codes in 'into' (adding entries as needed).
+        int[] remapInto(StringDict into) {
+            int[] map = new int[count];
+            for (int c = 0; c < count; c++) map[c] = into.encode(keys[c], 0, keys[c].length);
+            return map;
+        }
+
+        private void rehash() {
+            slots = new int[slots.length * 2];
+            int mask = slots.length - 1;
+            for (int c = 0; c < count; c++) {
+                int h = hash(keys[c], 0, keys[c].length) & mask;
+                while (slots[h] != 0) h = (h + 1) & mask;
+                slots[h] = c + 1;
+            }
+        }
+
+        private static int hash(byte[] b, int off, int len) {
+            int h = 0;
+            for (int i = off; i < off + len; i++) h = 31 * h + b[i];
+            return h ^ (h >>> 16);
+        }
+    }
+}
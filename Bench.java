@@ -0,0 +1,183 @@
+// Bench.java
+// Micro-benchmarks for each pipeline stage over synthetic applicants.
+//   java Bench [--sizes=10000,1000000,10000000] [--bench=score] [--warmup=3] [--iterations=5]
+// Reports time per op, rows/s, allocation (bytes/op and MB/s, measuring thread only) and GC.
+
+import java.io.*;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.nio.file.*;
+import java.util.*;
+
+public class Bench {
+
+    interface Op {
+        Object run() throws Exception;
+    }
+
+    static volatile Object sink; // keeps results alive so the JIT can't drop the work
+
+    static int warmup = 3, iterations = 5;
+    static String filter = "";
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = { 10_000, 1_000_000, 10_000_000 };
+        for (String arg : args) {
+            if (arg.startsWith("--sizes=")) {
+                sizes = Arrays.stream(arg.substring(8).split(",")).mapToInt(Integer::parseInt).toArray();
+            } else if (arg.startsWith("--bench=")) {
+                filter = arg.substring(8);
+            } else if (arg.startsWith("--warmup=")) {
+                warmup = Integer.parseInt(arg.substring(9));
+            } else if (arg.startsWith("--iterations=")) {
+                iterations = Integer.parseInt(arg.substring(13));
+            }
+        }
+
+        System.out.printf("%-20s %10s %12s %14s %12s %14s %8s %8s%n",
+                "benchmark", "rows", "ms/op", "rows/s", "alloc MB/s", "alloc B/op", "gc/op", "gc ms/op");
+        for (int n : sizes) run(n);
+    }
+
+    static void run(int n) throws Exception {
+        Path csv = Files.createTempFile("bench-applicants", ".csv");
+        Path out = Files.createTempFile("bench-results", ".csv");
+        Path wide = Files.createTempFile("bench-wide", ".csv");
+        Path gz = Files.createTempFile("bench-applicants", ".csv.gz");
+        try {
+            ApplicantGenerator.Config config = new ApplicantGenerator.Config();
+            config.rows = n;
+            ApplicantGenerator.writeCsv(csv.toFile(), config);
+            writeWide(csv, wide);
+            writeGzip(csv, gz);
+            ApplicantTable t = MappedCsvReader.readTable(csv.toString());
+            Main.Results res = new Main.Results(t);
+            Admissions.blindScores(t, res.blind);
+            Admissions.awareScores(t, res.aware);
+            String[] lines;
+            try (java.util.stream.Stream<String> all = Files.lines(csv)) {
+                lines = all.skip(1).limit(1024).toArray(String[]::new);
+            }
+
+            bench("parse.csvLine", n, () -> {
+                int fields = 0;
+                for (int i = 0; i < n; i++) fields += Main.parseCSVLine(lines[i & 1023]).length;
+                return fields;
+            });
+            bench("parse.readApplicants", n, () -> Main.readApplicants(csv.toString()));
+            bench("parse.mapped", n, () -> MappedCsvReader.readTable(csv.toString()));
+            bench("parse.mappedWide", n, () -> MappedCsvReader.readTable(wide.toString()));
+            int cores = Runtime.getRuntime().availableProcessors();
+            bench("parse.gzip", n, () -> MappedCsvReader.readTable(gz.toString(), cores));
+            bench("score.blind", n, () -> {
+                Admissions.blindScores(t, res.blind);
+                return res.blind;
+            });
+            bench("score.aware", n, () -> {
+                Admissions.awareScores(t, res.aware);
+                return res.aware;
+            });
+            bench("score.both", n, () -> {
+                Admissions.scoreBoth(t, res.blind, res.aware);
+                return res.aware;
+            });
+            ScoringModel compiled = ScoringPolicy.aware().compile();
+            bench("score.compiled", n, () -> {
+                compiled.scores(t, res.aware);
+                return res.aware;
+            });
+            bench("admit.topK", n, () -> {
+                Main.admitTopK(res, 120);
+                return res.order;
+            });
+            bench("admit.cutoff", n, () -> {
+                Main.admitByCutoff(res, 0.8);
+                return res.admitAware;
+            });
+            bench("fairness", n, () -> Fairness.count(Fairness.DEFAULT, t, res.admitBlind, res.admitAware));
+            bench("write", n, () -> {
+                Main.writeResultsCSV(out.toString(), res);
+                return out;
+            });
+        } finally {
+            Files.deleteIfExists(csv);
+            Files.deleteIfExists(out);
+            Files.deleteIfExists(wide);
+            Files.deleteIfExists(gz);
+        }
+    }
+
+    // The CSV as a multi-member gzip, one member per 4 MB, so members inflate in parallel.
+    static void writeGzip(Path csv, Path gz) throws IOException {
+        byte[] buf = new byte[4 << 20];
+        try (InputStream in = Files.newInputStream(csv);
+             OutputStream out = new BufferedOutputStream(Files.newOutputStream(gz))) {
+            for (int n; (n = in.readNBytes(buf, 0, buf.length)) > 0; ) {
+                ByteArrayOutputStream member = new ByteArrayOutputStream();
+                try (java.util.zip.GZIPOutputStream z = new java.util.zip.GZIPOutputStream(member)) {
+                    z.write(buf, 0, n);
+                }
+                member.writeTo(out);
+            }
+        }
+    }
+
+    // The same rows as an 81-column export: an ID column in front, 66 unused ones after.
+    static void writeWide(Path csv, Path wide) throws IOException {
+        StringBuilder head = new StringBuilder(), tail = new StringBuilder();
+        for (int c = 1; c <= 66; c++) {
+            head.append(",Export ").append(c);
+            tail.append(",").append(c % 7 == 0 ? "\"n/a, pending\"" : "0.5");
+        }
+        try (BufferedReader in = Files.newBufferedReader(csv);
+             BufferedWriter w = Files.newBufferedWriter(wide)) {
+            String line = in.readLine();
+            w.write("Application ID," + line + head + "\n");
+            for (int id = 1; (line = in.readLine()) != null; id++) {
+                w.write("A" + id + "," + line + tail + "\n");
+            }
+        }
+    }
+
+    static void bench(String name, int n, Op op) throws Exception {
+        if (!name.contains(filter)) return;
+        for (int i = 0; i < warmup; i++) sink = op.run();
+
+        long nanos = 0, bytes = 0, gcCount = 0, gcMillis = 0;
+        for (int i = 0; i < iterations; i++) {
+            long a0 = allocatedBytes(), c0 = gcCount(), g0 = gcMillis();
+            long t0 = System.nanoTime();
+            sink = op.run();
+            nanos += System.nanoTime() - t0;
+            bytes += allocatedBytes() - a0;
+            gcCount += gcCount() - c0;
+            gcMillis += gcMillis() - g0;
+        }
+        double secPerOp = nanos / 1e9 / iterations;
+        double bytesPerOp = (double) bytes / iterations;
+        System.out.printf("%-20s %10d %12.3f %14.0f %12.1f %14.0f %8.2f %8.2f%n",
+                name, n, secPerOp * 1e3, n / secPerOp, bytesPerOp / secPerOp / (1 << 20), bytesPerOp,
+                (double) gcCount / iterations, (double) gcMillis / iterations);
+    }
+
+    // ---------- Measurement ----------
+    private static long allocatedBytes() {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (mx instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) mx).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+
+    private static long gcCount() {
+        long c = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) c += Math.max(gc.getCollectionCount(), 0);
+        return c;
+    }
+
+    private static long gcMillis() {
+        long c = 0;
+        for (GarbageCollectorMXBean gc : ManagementFactory.getGarbageCollectorMXBeans()) c += Math.max(gc.getCollectionTime(), 0);
+        return c;
+    }
+}
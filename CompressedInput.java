@@ -0,0 +1,344 @@
+// CompressedInput.java
+// Streams a .gz / .deflate file into the CSV parser as blocks of whole records, so
+// compressed exports are read without unpacking them to disk. Decompression runs on its
+// own thread, ahead of the parser. A gzip file of several members (cat a.gz b.gz, bgzip,
+// chunked exports) has its members inflated in parallel and handed over in file order.
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.zip.*;
+
+public class CompressedInput implements AutoCloseable {
+
+    static final int CHUNK = 1 << 20;     // decompressed bytes per hand-off
+    private static final int QUEUE = 8;   // chunks buffered ahead of the parser
+    private static final byte[] END = new byte[0];
+
+    static boolean isCompressed(String filename) {
+        String f = filename.toLowerCase(Locale.ROOT);
+        return f.endsWith(".gz") || f.endsWith(".gzip") || f.endsWith(".deflate") || f.endsWith(".zz");
+    }
+
+    private final BlockingQueue<byte[]> queue = new ArrayBlockingQueue<>(QUEUE);
+    private final Thread producer;
+    private volatile IOException failure;
+    private final String header;
+    private byte[] carry = new byte[0]; // decompressed bytes not handed out yet
+    private long offset;                // stream offset of carry[0]
+    private long at;                    // stream offset of the block last returned
+    private long firstLine = 1;         // line number the first block starts on
+    private boolean done;
+
+    private CompressedInput(Path path, int threads) throws IOException {
+        producer = new Thread(() -> {
+            try {
+                produce(path, threads);
+            } catch (IOException e) {
+                failure = e;
+            } catch (InterruptedException e) {
+                return; // closed early
+            } catch (RuntimeException e) {
+                failure = new IOException(e);
+            }
+            try {
+                queue.put(END);
+            } catch (InterruptedException e) {
+                // closed early
+            }
+        }, "inflate " + path.getFileName());
+        producer.setDaemon(true);
+        producer.start();
+        try {
+            header = readHeader();
+        } catch (IOException e) {
+            close();
+            throw e;
+        }
+    }
+
+    // threads > 1 inflates gzip members in parallel; 1 inflates on a single background thread.
+    static CompressedInput open(String filename, int threads) throws IOException {
+        return new CompressedInput(Paths.get(filename), threads);
+    }
+
+    // The first line, without its line break; null for an empty file.
+    String header() {
+        return header;
+    }
+
+    // Line number at the start of the first block: 2, or 1 after a "\r\n" header whose
+    // "\n" opens the block (MappedCsvReader.Cursor counts line breaks by '\n').
+    long firstLine() {
+        return firstLine;
+    }
+
+    // Stream offset of the block last returned by next().
+    long offset() {
+        return at;
+    }
+
+    // The next run of whole records, ending just past a line break (or at the end of the
+    // data), or null when everything has been returned.
+    ByteBuffer next() throws IOException {
+        while (!done) {
+            byte[] b = take();
+            if (b == END) break;
+            int cut = lastBreak(b) + 1;
+            if (cut == 0) {
+                carry = concat(carry, b, b.length);
+                continue;
+            }
+            byte[] block = concat(carry, b, cut);
+            carry = Arrays.copyOfRange(b, cut, b.length);
+            return block(block);
+        }
+        if (carry.length == 0) return null;
+        byte[] block = carry;
+        carry = new byte[0];
+        return block(block);
+    }
+
+    @Override
+    public void close() {
+        producer.interrupt();
+        queue.clear();
+    }
+
+    private ByteBuffer block(byte[] block) {
+        at = offset;
+        offset += block.length;
+        return ByteBuffer.wrap(block);
+    }
+
+    private String readHeader() throws IOException {
+        while (true) {
+            for (int i = 0; i < carry.length; i++) {
+                if (carry[i] == '\n' || carry[i] == '\r') {
+                    String line = new String(carry, 0, i, StandardCharsets.UTF_8);
+                    if (carry[i] == '\n') firstLine = 2;
+                    carry = Arrays.copyOfRange(carry, i + 1, carry.length);
+                    offset = i + 1;
+                    return line;
+                }
+            }
+            byte[] b = done ? END : take();
+            if (b == END) {
+                String line = carry.length == 0 ? null : new String(carry, StandardCharsets.UTF_8);
+                offset = carry.length;
+                carry = new byte[0];
+                return line;
+            }
+            carry = concat(carry, b, b.length);
+        }
+    }
+
+    private byte[] take() throws IOException {
+        byte[] b;
+        try {
+            b = queue.take();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Interrupted while decompressing");
+        }
+        if (b == END) {
+            done = true;
+            if (failure != null) throw failure;
+        }
+        return b;
+    }
+
+    private static int lastBreak(byte[] b) {
+        for (int i = b.length - 1; i >= 0; i--) if (b[i] == '\n' || b[i] == '\r') return i;
+        return -1;
+    }
+
+    private static byte[] concat(byte[] a, byte[] b, int n) {
+        if (a.length == 0) return n == b.length ? b : Arrays.copyOf(b, n);
+        byte[] c = Arrays.copyOf(a, a.length + n);
+        System.arraycopy(b, 0, c, a.length, n);
+        return c;
+    }
+
+    private void put(byte[] chunk) throws InterruptedException {
+        if (chunk.length > 0) queue.put(chunk);
+    }
+
+    // ---------- Decompression ----------
+    private void produce(Path path, int threads) throws IOException, InterruptedException {
+        try (FileChannel ch = FileChannel.open(path, StandardOpenOption.READ)) {
+            long size = ch.size();
+            if (threads > 1 && size >= 10 && size <= Integer.MAX_VALUE) {
+                ByteBuffer file = ch.map(FileChannel.MapMode.READ_ONLY, 0, size).order(ByteOrder.LITTLE_ENDIAN);
+                if (isMember(file, 0)) {
+                    members(file, threads);
+                    return;
+                }
+            }
+        }
+        sequential(path);
+    }
+
+    // gzip (all members, via GZIPInputStream), zlib, or raw deflate, told apart by their first bytes.
+    private void sequential(Path path) throws IOException, InterruptedException {
+        try (InputStream file = new BufferedInputStream(Files.newInputStream(path), 1 << 16)) {
+            file.mark(2);
+            int b0 = file.read(), b1 = file.read();
+            file.reset();
+            InputStream z;
+            if (b0 == 0x1f && b1 == 0x8b) z = new GZIPInputStream(file, 1 << 16);
+            else if ((b0 & 0x0f) == 8 && b1 >= 0 && ((b0 << 8) | b1) % 31 == 0) z = new InflaterInputStream(file, new Inflater(), 1 << 16);
+            else z = new InflaterInputStream(file, new Inflater(true), 1 << 16);
+            while (true) {
+                byte[] chunk = new byte[CHUNK];
+                int n = z.readNBytes(chunk, 0, CHUNK);
+                put(n == CHUNK ? chunk : Arrays.copyOf(chunk, n));
+                if (n < CHUNK) return;
+            }
+        }
+    }
+
+    // Member boundaries aren't stored anywhere, so every byte run that looks like a gzip
+    // header is a candidate. Candidates past the member being read are inflated ahead on
+    // the pool; one only counts if the previous member ends exactly where it starts, and
+    // each member is checked against its CRC and length. The member at the front streams
+    // straight to the parser, so a single-member file never sits in memory whole.
+    private void members(ByteBuffer file, int threads) throws IOException, InterruptedException {
+        ForkJoinPool pool = new ForkJoinPool(threads);
+        Deque<Ahead> ahead = new ArrayDeque<>();
+        try {
+            int scan = 1;        // next offset to test for a header
+            int expected = 0;    // where the next member must start
+            int size = file.limit();
+            while (expected < size) {
+                scan = Math.max(scan, expected + 1);
+                while (ahead.size() < threads && scan < size) {
+                    int c = nextCandidate(file, scan);
+                    scan = c + 1;
+                    if (c < size) ahead.add(new Ahead(c, pool.submit(() -> inflate(file, c, new ArrayList<>()))));
+                }
+                while (!ahead.isEmpty() && ahead.peekFirst().start < expected) ahead.pollFirst().member.cancel(true);
+
+                Member m;
+                if (!ahead.isEmpty() && ahead.peekFirst().start == expected) {
+                    m = get(ahead.pollFirst().member);
+                    for (byte[] chunk : m.chunks) put(chunk);
+                } else if (isMember(file, expected)) {
+                    m = inflate(file, expected, null);
+                } else {
+                    break; // bytes after the last member are ignored, as GZIPInputStream does
+                }
+                expected = m.end;
+            }
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static final class Ahead {
+        final int start;
+        final Future<Member> member;
+
+        Ahead(int start, Future<Member> member) {
+            this.start = start;
+            this.member = member;
+        }
+    }
+
+    static final class Member {
+        final int end;              // offset just past the trailer
+        final List<byte[]> chunks;  // decompressed data; null when it was streamed
+
+        Member(int end, List<byte[]> chunks) {
+            this.end = end;
+            this.chunks = chunks;
+        }
+    }
+
+    private static Member get(Future<Member> f) throws IOException, InterruptedException {
+        try {
+            return f.get();
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause(); // ForkJoinPool wraps checked exceptions
+            while (cause instanceof RuntimeException && cause.getCause() != null) cause = cause.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException(cause);
+        }
+    }
+
+    // Inflates the member starting at 'start', into 'out' or (out == null) onto the queue.
+    private Member inflate(ByteBuffer file, int start, List<byte[]> out) throws IOException, InterruptedException {
+        ByteBuffer in = file.duplicate().order(ByteOrder.LITTLE_ENDIAN);
+        int data = dataStart(in, start);
+        Inflater inf = new Inflater(true);
+        try {
+            in.position(data);
+            inf.setInput(in);
+            CRC32 crc = new CRC32();
+            byte[] chunk = new byte[CHUNK];
+            int n = 0;
+            while (!inf.finished()) {
+                int k = inf.inflate(chunk, n, CHUNK - n);
+                if (k == 0 && (inf.needsInput() || inf.needsDictionary())) {
+                    throw new EOFException("Truncated gzip member at offset " + start);
+                }
+                n += k;
+                if (n == CHUNK || inf.finished()) {
+                    crc.update(chunk, 0, n);
+                    byte[] full = n == CHUNK ? chunk : Arrays.copyOf(chunk, n);
+                    if (out != null) out.add(full);
+                    else put(full);
+                    chunk = new byte[CHUNK];
+                    n = 0;
+                }
+                if (Thread.interrupted()) throw new InterruptedException();
+            }
+            int trailer = data + (int) inf.getBytesRead();
+            if (trailer + 8 > in.limit()) throw new EOFException("Truncated gzip member at offset " + start);
+            if (in.getInt(trailer) != (int) crc.getValue() || in.getInt(trailer + 4) != (int) inf.getBytesWritten()) {
+                throw new ZipException("Corrupt gzip member at offset " + start);
+            }
+            return new Member(trailer + 8, out);
+        } catch (DataFormatException e) {
+            throw new ZipException("Corrupt gzip member at offset " + start + ": " + e.getMessage());
+        } finally {
+            inf.end();
+        }
+    }
+
+    // ---------- Gzip headers ----------
+    // ID1 ID2 CM=8 FLG MTIME(4) XFL OS, with no reserved flag bits set.
+    static boolean isMember(ByteBuffer b, int s) {
+        return s + 10 <= b.limit() && (b.get(s) & 0xff) == 0x1f && (b.get(s + 1) & 0xff) == 0x8b
+                && b.get(s + 2) == 8 && (b.get(s + 3) & 0xe0) == 0;
+    }
+
+    // First offset >= from that passes isMember, or limit.
+    private static int nextCandidate(ByteBuffer b, int from) {
+        for (int s = from, end = b.limit() - 10; s <= end; s++) {
+            if (b.get(s) == 0x1f && isMember(b, s)) return s;
+        }
+        return b.limit();
+    }
+
+    // Offset of the deflate data after the header at s (FEXTRA, FNAME, FCOMMENT, FHCRC skipped).
+    private static int dataStart(ByteBuffer b, int s) throws IOException {
+        if (!isMember(b, s)) throw new ZipException("Not a gzip member at offset " + s);
+        try {
+            int flg = b.get(s + 3), p = s + 10;
+            if ((flg & 4) != 0) p += 2 + (b.getShort(p) & 0xffff);
+            if ((flg & 8) != 0) while (b.get(p++) != 0) { }
+            if ((flg & 16) != 0) while (b.get(p++) != 0) { }
+            if ((flg & 2) != 0) p += 2;
+            if (p > b.limit()) throw new IndexOutOfBoundsException();
+            return p;
+        } catch (IndexOutOfBoundsException e) {
+            throw new EOFException("Truncated gzip header at offset " + s);
+        }
+    }
+}
@@ -0,0 +1,99 @@
+// CsvColumns.java
+// Maps CSV header names to the 14 applicant fields, so columns may come in any order and
+// extra columns (application IDs, wide exports) are ignored. Names are matched loosely:
+// case, punctuation and parenthesized units don't matter, and common variants are known,
+// so "Income ($)", "household_income" and "INCOME" all resolve to income.
+
+import java.util.*;
+
+public class CsvColumns {
+
+    // Applicant field order; Cursor field slots and Main.readApplicants use these indexes.
+    static final String[] FIELDS = {
+        "name", "age", "geography", "ethnicity", "income", "legacy", "local",
+        "gpa", "test", "extra", "essay", "rec", "firstgen", "disability"
+    };
+
+    private static final Map<String, Integer> ALIASES = new HashMap<>();
+    static {
+        alias(0, "name", "applicant", "applicantname", "fullname");
+        alias(1, "age");
+        alias(2, "geography", "location", "region", "city");
+        alias(3, "ethnicity", "race", "raceethnicity");
+        alias(4, "income", "householdincome", "familyincome", "annualincome");
+        alias(5, "legacy");
+        alias(6, "local", "instate");
+        alias(7, "gpa");
+        alias(8, "test", "testscore", "sat", "satscore");
+        alias(9, "extra", "extracurricular", "extracurriculars");
+        alias(10, "essay", "essayscore");
+        alias(11, "rec", "recommendation", "letterofrecommendation", "recommendationletter", "letter");
+        alias(12, "firstgen", "firstgeneration", "firstgenerationstudent");
+        alias(13, "disability", "disabled");
+    }
+
+    private static void alias(int field, String... names) {
+        for (String n : names) ALIASES.put(n, field);
+    }
+
+    // The original fixed layout: field f in column f.
+    static final CsvColumns POSITIONAL = positional();
+
+    final int[] column;  // [field] -> file column
+    final int[] slot;    // [file column] -> field, or -1 for a column nobody reads
+    final int width;     // columns a row needs: the last one read, plus one
+
+    private CsvColumns(int[] column) {
+        this.column = column;
+        int last = 0;
+        for (int c : column) last = Math.max(last, c);
+        width = last + 1;
+        slot = new int[width];
+        Arrays.fill(slot, -1);
+        for (int f = 0; f < column.length; f++) slot[column[f]] = f;
+    }
+
+    private static CsvColumns positional() {
+        int[] column = new int[FIELDS.length];
+        for (int f = 0; f < column.length; f++) column[f] = f;
+        return new CsvColumns(column);
+    }
+
+    // Resolves a header line (split like Main.parseCSVLine). A header with none of the
+    // known names keeps the fixed layout, as before; one that names only some fields
+    // does too, with a warning listing the missing ones. Duplicates: the first wins.
+    static CsvColumns resolve(String header) {
+        if (header == null) return POSITIONAL;
+        String[] names = Main.parseCSVLine(header);
+        int[] column = new int[FIELDS.length];
+        Arrays.fill(column, -1);
+        int found = 0;
+        for (int c = 0; c < names.length; c++) {
+            Integer f = ALIASES.get(normalize(names[c]));
+            if (f != null && column[f] < 0) {
+                column[f] = c;
+                found++;
+            }
+        }
+        if (found == FIELDS.length) return new CsvColumns(column);
+        if (found > 0) {
+            StringJoiner missing = new StringJoiner(", ");
+            for (int f = 0; f < FIELDS.length; f++) if (column[f] < 0) missing.add(FIELDS[f]);
+            System.out.println("Header has no column for " + missing + "; using column positions");
+        }
+        return POSITIONAL;
+    }
+
+    // Lower-case letters and digits only, with any "(...)" unit dropped.
+    static String normalize(String name) {
+        StringBuilder sb = new StringBuilder(name.length());
+        int depth = 0;
+        for (int i = 0; i < name.length(); i++) {
+            char ch = name.charAt(i);
+            if (ch == '(') depth++;
+            else if (ch == ')') depth = Math.max(0, depth - 1);
+            else if (depth == 0 && Character.isLetterOrDigit(ch)) sb.append(Character.toLowerCase(ch));
+        }
+        return sb.toString();
+    }
+}
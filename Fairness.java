@@ -0,0 +1,156 @@
+// Fairness.java
+// Group admit rates for any number of grouping dimensions, counted in one pass.
+
+import java.util.*;
+import java.util.function.Predicate;
+
+public class Fairness {
+
+    // A grouping dimension: row i falls into group(t, i), an ordinal into labels(t). A streamed
+    // applicant, which has no row, falls into the group named label(a).
+    abstract static class Dimension {
+        final String title;
+
+        Dimension(String title) {
+            this.title = title;
+        }
+
+        abstract String[] labels(ApplicantTable t);
+
+        abstract int group(ApplicantTable t, int i);
+
+        abstract String label(Applicant a);
+    }
+
+    static Dimension flag(String title, int bit, Predicate<Applicant> has, String yes, String no) {
+        return new Dimension(title) {
+            String[] labels(ApplicantTable t) { return new String[] { yes, no }; }
+            int group(ApplicantTable t, int i) { return (t.flags[i] & bit) != 0 ? 0 : 1; }
+            String label(Applicant a) { return has.test(a) ? yes : no; }
+        };
+    }
+
+    static final Dimension FIRST_GEN = flag("By First-Gen", ApplicantTable.FIRST_GEN, a -> a.firstGen, "FirstGen", "NonFirstGen");
+    static final Dimension LEGACY = flag("By Legacy", ApplicantTable.LEGACY, a -> a.legacy, "Legacy", "NonLegacy");
+    static final Dimension LOCAL = flag("By Local", ApplicantTable.LOCAL, a -> a.local, "Local", "NonLocal");
+    static final Dimension DISABILITY = flag("By Disability", ApplicantTable.DISABILITY, a -> a.disability, "Disability", "NoDisability");
+
+    private static final String[] INCOME_LABELS = { "High", "Low", "Middle" };
+
+    static final Dimension INCOME = new Dimension("By Income") {
+        String[] labels(ApplicantTable t) { return INCOME_LABELS.clone(); }
+        int group(ApplicantTable t, int i) { return bracket(t.income[i]); }
+        String label(Applicant a) { return INCOME_LABELS[bracket(a.income)]; }
+
+        private int bracket(double income) {
+            return income < 40000 ? 1 : income < 100000 ? 2 : 0;
+        }
+    };
+
+    static final Dimension ETHNICITY = new Dimension("By Ethnicity") {
+        String[] labels(ApplicantTable t) { return t.ethnicityDict.values(); }
+        int group(ApplicantTable t, int i) { return t.ethnicity[i]; }
+        String label(Applicant a) { return a.ethnicity; }
+    };
+
+    static final Dimension GEOGRAPHY = new Dimension("By Geography") {
+        String[] labels(ApplicantTable t) { return t.geographyDict.values(); }
+        int group(ApplicantTable t, int i) { return t.geography[i]; }
+        String label(Applicant a) { return a.geography; }
+    };
+
+    static final List<Dimension> DEFAULT = List.of(FIRST_GEN, LEGACY, INCOME);
+
+    // --groups=firstgen,legacy,income,local,disability,ethnicity,geography
+    static List<Dimension> parse(String spec) {
+        List<Dimension> dims = new ArrayList<>();
+        for (String key : spec.split(",")) {
+            switch (key.trim().toLowerCase()) {
+                case "firstgen":   dims.add(FIRST_GEN); break;
+                case "legacy":     dims.add(LEGACY); break;
+                case "income":     dims.add(INCOME); break;
+                case "local":      dims.add(LOCAL); break;
+                case "disability": dims.add(DISABILITY); break;
+                case "ethnicity":  dims.add(ETHNICITY); break;
+                case "geography":  dims.add(GEOGRAPHY); break;
+                default: throw new IllegalArgumentException("Unknown group dimension: " + key);
+            }
+        }
+        return dims;
+    }
+
+    // One pass over the rows for all dimensions. counts[d][3 * g + k] holds, for group g
+    // of dimension d: k = 0 applicants, k = 1 blind admits, k = 2 aware admits.
+    static int[][] count(List<Dimension> dims, ApplicantTable t, boolean[] admitBlind, boolean[] admitAware) {
+        Dimension[] ds = dims.toArray(new Dimension[0]);
+        int[][] counts = new int[ds.length][];
+        for (int d = 0; d < ds.length; d++) counts[d] = new int[3 * ds[d].labels(t).length];
+
+        for (int i = 0; i < admitBlind.length; i++) {
+            int b = admitBlind[i] ? 1 : 0, a = admitAware[i] ? 1 : 0;
+            for (int d = 0; d < ds.length; d++) {
+                int[] c = counts[d];
+                int g = 3 * ds[d].group(t, i);
+                c[g]++;
+                c[g + 1] += b;
+                c[g + 2] += a;
+            }
+        }
+        return counts;
+    }
+
+    static void report(List<Dimension> dims, ApplicantTable t, boolean[] admitBlind, boolean[] admitAware) {
+        AdmissionsEvents.FairnessReport event = new AdmissionsEvents.FairnessReport();
+        event.begin();
+        int[][] counts = count(dims, t, admitBlind, admitAware);
+        for (int d = 0; d < dims.size(); d++) print(dims.get(d).title, dims.get(d).labels(t), counts[d]);
+        event.end();
+        if (event.shouldCommit()) {
+            long blind = 0, aware = 0;
+            for (int i = 0; i < admitBlind.length; i++) {
+                if (admitBlind[i]) blind++;
+                if (admitAware[i]) aware++;
+            }
+            commit(event, dims, t.size(), blind, aware);
+        }
+    }
+
+    // Fills in and commits an ended event that shouldCommit(); the streaming path counts
+    // its admits as it goes.
+    static void commit(AdmissionsEvents.FairnessReport event, List<Dimension> dims, long rows,
+                       long admitsBlind, long admitsAware) {
+        StringJoiner titles = new StringJoiner(", ");
+        for (Dimension dim : dims) titles.add(dim.title);
+        event.rows = rows;
+        event.dimensions = titles.toString();
+        event.admitsBlind = admitsBlind;
+        event.admitsAware = admitsAware;
+        event.commit();
+    }
+
+    // Empty groups are left out, as groupingBy would.
+    static void print(String title, String[] labels, int[] counts) {
+        System.out.println("\n" + title);
+        for (int g = 0; g < labels.length; g++) {
+            int n = counts[3 * g];
+            if (n == 0) continue;
+            double rb = (double) counts[3 * g + 1] / n;
+            double ra = (double) counts[3 * g + 2] / n;
+            System.out.printf("  %-12s | BLIND: %.3f  AWARE: %.3f  (n=%d)\n", labels[g], rb, ra, n);
+        }
+        System.out.printf("  Demographic parity gap (AWARE): %.3f\n", gap(counts, 2));
+    }
+
+    // Highest minus lowest admit rate among non-empty groups, for k = 1 (blind) or 2 (aware).
+    static double gap(int[] counts, int k) {
+        double max = Double.NEGATIVE_INFINITY, min = Double.POSITIVE_INFINITY;
+        for (int g = 0; 3 * g < counts.length; g++) {
+            int n = counts[3 * g];
+            if (n == 0) continue;
+            double rate = (double) counts[3 * g + k] / n;
+            max = Math.max(max, rate);
+            min = Math.min(min, rate);
+        }
+        return max - min;
+    }
+}
@@ -0,0 +1,188 @@
+// FieldParsers.java
+// Allocation-free parsers for CSV cells, over a byte range or a CharSequence.
+// Results (and exceptions) match the String-based code they replace:
+//   parseInt     Integer.parseInt(s)
+//   parseDouble  Double.parseDouble(s)
+//   parseIncome  Double.parseDouble(s.replace("$", "").replace(",", "").trim()), 0.0 on error
+//   isYes        s.trim().toLowerCase() is "yes", "true" or "1"
+// Only inputs outside the plain fast paths build a String, to hand to the JDK parser.
+
+import java.nio.charset.StandardCharsets;
+
+public class FieldParsers {
+
+    // Exact powers of ten; below 2^53 every mantissa times or over one of these rounds once.
+    private static final double[] POW10 = {
+        1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+        1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    private static String text(byte[] b, int off, int len) {
+        return new String(b, off, len, StandardCharsets.UTF_8);
+    }
+
+    private static boolean blank(int c) {
+        return c <= ' '; // what String.trim() strips
+    }
+
+    // ---------- Yes / no ----------
+    // ASCII case folding (c | 0x20) covers every spelling toLowerCase() maps to these words.
+    static boolean isYes(byte[] b, int off, int len) {
+        int s = off, e = off + len;
+        while (s < e && blank(b[s] & 0xFF)) s++;
+        while (e > s && blank(b[e - 1] & 0xFF)) e--;
+        switch (e - s) {
+            case 1: return b[s] == '1';
+            case 3: return (b[s] | 0x20) == 'y' && (b[s + 1] | 0x20) == 'e' && (b[s + 2] | 0x20) == 's';
+            case 4: return (b[s] | 0x20) == 't' && (b[s + 1] | 0x20) == 'r'
+                    && (b[s + 2] | 0x20) == 'u' && (b[s + 3] | 0x20) == 'e';
+            default: return false;
+        }
+    }
+
+    static boolean isYes(CharSequence cs) {
+        if (cs == null) return false;
+        int s = 0, e = cs.length();
+        while (s < e && blank(cs.charAt(s))) s++;
+        while (e > s && blank(cs.charAt(e - 1))) e--;
+        switch (e - s) {
+            case 1: return cs.charAt(s) == '1';
+            case 3: return (cs.charAt(s) | 0x20) == 'y' && (cs.charAt(s + 1) | 0x20) == 'e'
+                    && (cs.charAt(s + 2) | 0x20) == 's';
+            case 4: return (cs.charAt(s) | 0x20) == 't' && (cs.charAt(s + 1) | 0x20) == 'r'
+                    && (cs.charAt(s + 2) | 0x20) == 'u' && (cs.charAt(s + 3) | 0x20) == 'e';
+            default: return false;
+        }
+    }
+
+    // ---------- Integers ----------
+    // Plain [+-]digits; anything else goes through Integer.parseInt for identical results.
+    static int parseInt(byte[] b, int off, int len) {
+        int i = off, end = off + len;
+        boolean neg = false;
+        if (i < end && (b[i] == '-' || b[i] == '+')) neg = b[i++] == '-';
+        if (i == end || end - i > 9) return Integer.parseInt(text(b, off, len));
+        int v = 0;
+        for (; i < end; i++) {
+            int d = b[i] - '0';
+            if (d < 0 || d > 9) return Integer.parseInt(text(b, off, len));
+            v = v * 10 + d;
+        }
+        return neg ? -v : v;
+    }
+
+    static int parseInt(CharSequence cs) {
+        int i = 0, end = cs.length();
+        boolean neg = false;
+        if (i < end && (cs.charAt(i) == '-' || cs.charAt(i) == '+')) neg = cs.charAt(i++) == '-';
+        if (i == end || end - i > 9) return Integer.parseInt(cs.toString());
+        int v = 0;
+        for (; i < end; i++) {
+            int d = cs.charAt(i) - '0';
+            if (d < 0 || d > 9) return Integer.parseInt(cs.toString());
+            v = v * 10 + d;
+        }
+        return neg ? -v : v;
+    }
+
+    // ---------- Decimals ----------
+    // Fast path for [+-]digits[.digits]: an exact mantissa below 2^53 scaled by an
+    // exact power of ten rounds once, so it matches Double.parseDouble bit for bit.
+    // Exponents, long mantissas, NaN, hex and the like fall back to Double.parseDouble.
+    static double parseDouble(byte[] b, int off, int len) {
+        double v = decimal(b, off, len, false);
+        return v == v ? v : Double.parseDouble(text(b, off, len));
+    }
+
+    static double parseDouble(CharSequence cs) {
+        double v = decimal(cs, false);
+        return v == v ? v : Double.parseDouble(cs.toString());
+    }
+
+    // Money cells like "$12,345.50": '$' and ',' are ignored wherever they are, then
+    // surrounding blanks; unparseable cells are 0.0.
+    static double parseIncome(byte[] b, int off, int len) {
+        double v = decimal(b, off, len, true);
+        if (v == v) return v;
+        try {
+            return Double.parseDouble(text(b, off, len).replace("$", "").replace(",", "").trim());
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    static double parseIncome(CharSequence cs) {
+        if (cs == null) return 0.0;
+        double v = decimal(cs, true);
+        if (v == v) return v;
+        try {
+            return Double.parseDouble(cs.toString().replace("$", "").replace(",", "").trim());
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    // The fast path shared by the parsers above; NaN means "not plain, ask the JDK".
+    // With money set, '$' and ',' are skipped and blanks may surround the number.
+    private static double decimal(byte[] b, int off, int len, boolean money) {
+        int i = off, end = off + len;
+        if (money) {
+            while (i < end && (blank(b[i] & 0xFF) || b[i] == '$' || b[i] == ',')) i++;
+            while (end > i && (blank(b[end - 1] & 0xFF) || b[end - 1] == '$' || b[end - 1] == ',')) end--;
+        }
+        boolean neg = false;
+        if (i < end && (b[i] == '-' || b[i] == '+')) neg = b[i++] == '-';
+        long m = 0;
+        int sig = 0, scale = 0;
+        boolean dot = false, any = false;
+        for (; i < end; i++) {
+            byte c = b[i];
+            if (c >= '0' && c <= '9') {
+                any = true;
+                if (dot) scale++;
+                if (m == 0 && c == '0') continue; // leading zeros add no precision
+                if (++sig > 18) return Double.NaN;
+                m = m * 10 + (c - '0');
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else if (!(money && (c == '$' || c == ','))) {
+                return Double.NaN;
+            }
+        }
+        return finish(m, scale, neg, any);
+    }
+
+    private static double decimal(CharSequence cs, boolean money) {
+        int i = 0, end = cs.length();
+        if (money) {
+            while (i < end && (blank(cs.charAt(i)) || cs.charAt(i) == '$' || cs.charAt(i) == ',')) i++;
+            while (end > i && (blank(cs.charAt(end - 1)) || cs.charAt(end - 1) == '$' || cs.charAt(end - 1) == ',')) end--;
+        }
+        boolean neg = false;
+        if (i < end && (cs.charAt(i) == '-' || cs.charAt(i) == '+')) neg = cs.charAt(i++) == '-';
+        long m = 0;
+        int sig = 0, scale = 0;
+        boolean dot = false, any = false;
+        for (; i < end; i++) {
+            char c = cs.charAt(i);
+            if (c >= '0' && c <= '9') {
+                any = true;
+                if (dot) scale++;
+                if (m == 0 && c == '0') continue;
+                if (++sig > 18) return Double.NaN;
+                m = m * 10 + (c - '0');
+            } else if (c == '.' && !dot) {
+                dot = true;
+            } else if (!(money && (c == '$' || c == ','))) {
+                return Double.NaN;
+            }
+        }
+        return finish(m, scale, neg, any);
+    }
+
+    private static double finish(long m, int scale, boolean neg, boolean any) {
+        if (!any || m > (1L << 53) || scale > 22) return Double.NaN;
+        double v = scale == 0 ? (double) m : (double) m / POW10[scale];
+        return neg ? -v : v;
+    }
+}
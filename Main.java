@@ -3,13 +3,11 @@
 
 import java.io.*;
 import java.util.*;
-import java.util.function.Function;
-import java.util.stream.Collectors;
 
 public class Main {
 
 
-    private static String[] parseCSVLine(String line) {
+    static String[] parseCSVLine(String line) {
         List<String> out = new ArrayList<>();
         StringBuilder sb = new StringBuilder();
         boolean inQuotes = false;
@@ -24,53 +22,52 @@ public class Main {
         return out.toArray(new String[0]);
     }
 
-    private static boolean parseYesNo(String s) {
-        if (s == null) return false;
-        String t = s.trim().toLowerCase();
-        return t.equals("yes") || t.equals("true") || t.equals("1");
-    }
-
-    private static double parseIncome(String s) {
-        if (s == null) return 0.0;
-        try {
-            return Double.parseDouble(s.replace("$", "").replace(",", "").trim());
-        } catch (Exception e) {
-            return 0.0;
-        }
+    // Line-based reference reader; main() ingests through MappedCsvReader.
+    public static List<Applicant> readApplicants(String filename) {
+        RejectSink rejects = new RejectSink();
+        List<Applicant> apps = readApplicants(filename, rejects.source(filename));
+        rejects.print();
+        return apps;
     }
 
-    public static List<Applicant> readApplicants(String filename) {
+    static List<Applicant> readApplicants(String filename, RejectSink.Source rejects) {
         List<Applicant> apps = new ArrayList<>();
         try (BufferedReader br = new BufferedReader(new FileReader(filename))) {
-            String header = br.readLine(); // skip header
+            CsvColumns columns = CsvColumns.resolve(br.readLine());
+            int[] c = columns.column;
             String line;
+            long lineNo = 1;
             while ((line = br.readLine()) != null) {
+                lineNo++;
                 if (line.trim().isEmpty()) continue;
                 String[] p = parseCSVLine(line);
-                if (p.length < 14) continue; // skip malformed
+                if (p.length < columns.width) { // skip malformed
+                    rejects.reject(lineNo, -1, RejectSink.SHORT_ROW, line);
+                    continue;
+                }
 
                 try {
-                    String name = p[0];
-                    int age = Integer.parseInt(p[1]);
-                    String geography = p[2];
-                    String ethnicity = p[3];
-                    double income = parseIncome(p[4]);
-                    boolean legacy = parseYesNo(p[5]);
-                    boolean local = parseYesNo(p[6]);
-                    double gpa = Double.parseDouble(p[7]);
-                    int test = Integer.parseInt(p[8]);
-                    double extra = Double.parseDouble(p[9]);
-                    double essay = Double.parseDouble(p[10]);
-                    double rec = Double.parseDouble(p[11]);
-                    boolean firstGen = parseYesNo(p[12]);
-                    boolean disability = parseYesNo(p[13]);
+                    String name = p[c[0]];
+                    int age = FieldParsers.parseInt(p[c[1]]);
+                    String geography = p[c[2]];
+                    String ethnicity = p[c[3]];
+                    double income = FieldParsers.parseIncome(p[c[4]]);
+                    boolean legacy = FieldParsers.isYes(p[c[5]]);
+                    boolean local = FieldParsers.isYes(p[c[6]]);
+                    double gpa = FieldParsers.parseDouble(p[c[7]]);
+                    int test = FieldParsers.parseInt(p[c[8]]);
+                    double extra = FieldParsers.parseDouble(p[c[9]]);
+                    double essay = FieldParsers.parseDouble(p[c[10]]);
+                    double rec = FieldParsers.parseDouble(p[c[11]]);
+                    boolean firstGen = FieldParsers.isYes(p[c[12]]);
+                    boolean disability = FieldParsers.isYes(p[c[13]]);
 
                     apps.add(new Applicant(
                         name, age, geography, ethnicity, income,
                         legacy, local, gpa, test, extra, essay, rec, firstGen, disability
                     ));
                 } catch (Exception e) {
-                    System.out.println("Skipping malformed row: " + line);
+                    rejects.reject(lineNo, -1, RejectSink.badNumber(f -> p[c[f]]), line);
                 }
             }
         } catch (IOException e) {
@@ -80,142 +77,499 @@ public class Main {
     }
 
     // ---------- Admission strategies ----------
-    static class Row {
-        Applicant a;
-        double blind;
-        double aware;
-        boolean admitBlind;
-        boolean admitAware;
-        int rankBlind;
-        int rankAware;
-        Row(Applicant a, double b, double w) { this.a = a; this.blind = b; this.aware = w; }
-    }
-
-    private static void admitTopK(List<Row> rows, int K, boolean useAware) {
-        rows.sort((r1, r2) -> {
-            double s1 = useAware ? r1.aware : r1.blind;
-            double s2 = useAware ? r2.aware : r2.blind;
-            if (s1 == s2) {
-                // stable tie-break: higher test, then higher GPA, then name
-                if (r2.a.test != r1.a.test) return Integer.compare(r2.a.test, r1.a.test);
-                if (r2.a.gpa != r1.a.gpa) return Double.compare(r2.a.gpa, r1.a.gpa);
-                return r1.a.name.compareToIgnoreCase(r2.a.name);
-            }
-            return Double.compare(s2, s1);
-        });
+    // Per-applicant outcomes, one column per field, indexed like the ApplicantTable.
+    static class Results {
+        final ApplicantTable t;
+        final double[] blind;
+        final double[] aware;
+        final boolean[] admitBlind;
+        final boolean[] admitAware;
+        final int[] rankBlind;
+        final int[] rankAware;
+        int[] order;        // row indexes in output order
 
-        for (int i = 0; i < rows.size(); i++) {
-            if (useAware) {
-                rows.get(i).rankAware = i + 1;
-                rows.get(i).admitAware = (i < K);
-            } else {
-                rows.get(i).rankBlind = i + 1;
-                rows.get(i).admitBlind = (i < K);
-            }
+        Results(ApplicantTable t) {
+            int n = t.size();
+            this.t = t;
+            blind = new double[n];
+            aware = new double[n];
+            admitBlind = new boolean[n];
+            admitAware = new boolean[n];
+            rankBlind = new int[n];
+            rankAware = new int[n];
+            order = new int[n];
+            for (int i = 0; i < n; i++) order[i] = i;
         }
+
+        int size() { return blind.length; }
     }
 
-    private static void admitByCutoff(List<Row> rows, double cutoff) {
-        for (Row r : rows) {
-            r.admitBlind = r.blind >= cutoff;
-            r.admitAware = r.aware >= cutoff;
-        }
+    // Both models ranked independently (and concurrently) into their own permutations.
+    // results.csv lists rows in aware order, as before.
+    static void admitTopK(Results res, int K) {
+        AdmissionsEvents.RankPhase event = new AdmissionsEvents.RankPhase();
+        event.begin();
+        int[][] orders = Ranking.rankBoth(res.blind, res.aware, res.t);
+        assignRanks(orders[0], K, res.rankBlind, res.admitBlind);
+        assignRanks(orders[1], K, res.rankAware, res.admitAware);
+        res.order = orders[1];
+        commit(event, "both", "sort", res.size(), K, Double.NaN);
     }
 
-    // ---------- Fairness helpers ----------
-    private static double rate(Collection<Row> rows, boolean aware) {
-        long admits = rows.stream().filter(r -> aware ? r.admitAware : r.admitBlind).count();
-        return (double) admits / rows.size();
+    private static void assignRanks(int[] order, int K, int[] rank, boolean[] admit) {
+        for (int i = 0; i < order.length; i++) {
+            rank[order[i]] = i + 1;
+            admit[order[i]] = (i < K);
+        }
     }
 
-    private static <T> void printGroupRates(
-            List<Row> rows, String title, Function<Applicant, T> keyFn) {
+    // Selection instead of a full sort: only the best max(K, M) rows per model get an
+    // exact rank; everyone else is UNRANKED. Output lists the aware-ranked rows first.
+    static void admitTopKSelect(Results res, int K, int M, boolean useAware) {
+        AdmissionsEvents.RankPhase event = new AdmissionsEvents.RankPhase();
+        event.begin();
+        int[] top = Ranking.topK(useAware ? res.aware : res.blind, res.t, Math.max(K, M));
+        int[] rank = useAware ? res.rankAware : res.rankBlind;
+        boolean[] admit = useAware ? res.admitAware : res.admitBlind;
+        Arrays.fill(rank, Ranking.UNRANKED);
+        for (int r = 0; r < top.length; r++) {
+            rank[top[r]] = r + 1;
+            admit[top[r]] = (r < K);
+        }
+        if (useAware) res.order = Ranking.rankedFirst(top, res.size());
+        commit(event, useAware ? "aware" : "blind", "select", res.size(), K, Double.NaN);
+    }
 
-        System.out.println("\n" + title);
-        Map<T, List<Row>> groups = rows.stream().collect(Collectors.groupingBy(r -> keyFn.apply(r.a)));
-        double max = Double.NEGATIVE_INFINITY, min = Double.POSITIVE_INFINITY;
+    static void admitByCutoff(Results res, double cutoff) {
+        AdmissionsEvents.RankPhase event = new AdmissionsEvents.RankPhase();
+        event.begin();
+        for (int i = 0; i < res.size(); i++) {
+            res.admitBlind[i] = res.blind[i] >= cutoff;
+            res.admitAware[i] = res.aware[i] >= cutoff;
+        }
+        commit(event, "both", "cutoff", res.size(), 0, cutoff);
+    }
 
-        for (Map.Entry<T, List<Row>> e : groups.entrySet()) {
-            double rb = rate(e.getValue(), false);
-            double ra = rate(e.getValue(), true);
-            max = Math.max(max, ra);
-            min = Math.min(min, ra);
-            System.out.printf("  %-12s | BLIND: %.3f  AWARE: %.3f  (n=%d)\n",
-                    String.valueOf(e.getKey()), rb, ra, e.getValue().size());
+    private static void commit(AdmissionsEvents.RankPhase event, String model, String phase,
+                               int rows, int k, double cutoff) {
+        event.end();
+        if (event.shouldCommit()) {
+            event.model = model;
+            event.phase = phase;
+            event.rows = rows;
+            event.k = k;
+            event.cutoff = cutoff;
+            event.commit();
         }
-        System.out.printf("  Demographic parity gap (AWARE): %.3f\n", (max - min));
     }
 
-    private static String incomeBracket(double income) {
-        if (income < 40000) return "Low";
-        if (income < 100000) return "Middle";
-        return "High";
+    // ---------- Fairness helpers ----------
+    private static double rate(Results res, boolean aware) {
+        boolean[] admit = aware ? res.admitAware : res.admitBlind;
+        long admits = 0;
+        for (boolean b : admit) if (b) admits++;
+        return (double) admits / admit.length;
     }
 
     // ---------- Output CSV ----------
-    private static void writeResultsCSV(String path, List<Row> rows) {
-        try (PrintWriter pw = new PrintWriter(new FileWriter(path))) {
-            pw.println("name,gpa,test,income,legacy,firstGen,disability,blindScore,awareScore,admitBlind,admitAware,rankBlind,rankAware");
-            for (Row r : rows) {
-                pw.printf("%s,%.2f,%d,%.2f,%s,%s,%s,%.4f,%.4f,%s,%s,%d,%d%n",
-                        r.a.name, r.a.gpa, r.a.test, r.a.income,
-                        r.a.legacy, r.a.firstGen, r.a.disability,
-                        r.blind, r.aware, r.admitBlind, r.admitAware,
-                        r.rankBlind, r.rankAware);
+    static void writeResultsCSV(String path, Results res) {
+        ApplicantTable t = res.t;
+        try (ResultsWriter w = new ResultsWriter(path)) {
+            for (int i : res.order) {
+                w.row(t.name[i], t.gpa[i], t.test[i], t.income[i],
+                        t.legacy(i), t.firstGen(i), t.disability(i),
+                        res.blind[i], res.aware[i], res.admitBlind[i], res.admitAware[i],
+                        res.rankBlind[i], res.rankAware[i]);
             }
         } catch (IOException e) {
             System.out.println("Could not write results.csv: " + e.getMessage());
         }
     }
 
-    // ---------- Main ----------
-    public static void main(String[] args) {
-        List<Applicant> applicants = readApplicants("applicants.csv");
-        if (applicants.isEmpty()) {
+    // ---------- Streaming cutoff ----------
+    // Cutoff admission needs no global order, so score, admit, count and write applicants
+    // in small batches as they stream out of the file. Memory stays flat for any file size.
+    // Shards stream one after another, in order. Groups are counted by label, seeded with the
+    // labels a dimension always has so they print in the same order as Fairness.report.
+    private static final int STREAM_BATCH = 4096; // one ScoreBatch/RankPhase event pair each
+    private static void runStreamingCutoff(List<Shards.Shard> shards, int threads, double cutoff,
+                                           List<Fairness.Dimension> dims, RejectSink rejects, Stages stages) {
+        long n = 0, admitsBlind = 0, admitsAware = 0;
+        Fairness.Dimension[] ds = dims.toArray(new Fairness.Dimension[0]);
+        List<Map<String, int[]>> groups = new ArrayList<>();
+        for (Fairness.Dimension dim : ds) {
+            Map<String, int[]> counts = new LinkedHashMap<>();
+            for (String label : dim.labels(new ApplicantTable())) counts.put(label, new int[3]);
+            groups.add(counts);
+        }
+
+        Applicant[] batch = new Applicant[STREAM_BATCH];
+        double[] blind = new double[STREAM_BATCH], aware = new double[STREAM_BATCH];
+        boolean[] admitBlind = new boolean[STREAM_BATCH], admitAware = new boolean[STREAM_BATCH];
+        ResultsWriter w = null;
+        Stages.Scope stage = stages.start("stream");
+        try {
+            for (Shards.Shard shard : shards) {
+                long before = n;
+                try (ApplicantSource src = ApplicantSource.open(shard.file, threads, rejects.source(shard.file))) {
+                    Iterator<Applicant> it = src.stream().iterator();
+                    while (it.hasNext()) {
+                        int len = 0;
+                        while (len < STREAM_BATCH && it.hasNext()) batch[len++] = it.next();
+                        Admissions.scoreBoth(batch, len, blind, aware);
+                        AdmissionsEvents.RankPhase event = new AdmissionsEvents.RankPhase();
+                        event.begin();
+                        for (int k = 0; k < len; k++) {
+                            admitBlind[k] = blind[k] >= cutoff;
+                            admitAware[k] = aware[k] >= cutoff;
+                        }
+                        commit(event, "both", "cutoff", len, 0, cutoff);
+
+                        for (int k = 0; k < len; k++) {
+                            Applicant a = batch[k];
+                            if (admitBlind[k]) admitsBlind++;
+                            if (admitAware[k]) admitsAware++;
+                            for (int d = 0; d < ds.length; d++) {
+                                int[] c = groups.get(d).computeIfAbsent(ds[d].label(a), key -> new int[3]);
+                                c[0]++;
+                                if (admitBlind[k]) c[1]++;
+                                if (admitAware[k]) c[2]++;
+                            }
+
+                            if (w == null) w = new ResultsWriter("results.csv");
+                            w.row(a.name, a.gpa, a.test, a.income, a.legacy, a.firstGen, a.disability,
+                                    blind[k], aware[k], admitBlind[k], admitAware[k], 0, 0);
+                        }
+                        n += len;
+                    }
+                    shard.rows = (int) (n - before);
+                    shard.malformed = src.malformed();
+                }
+            }
+        } catch (IOException | UncheckedIOException e) {
+            System.out.println("Error reading file: " + e.getMessage());
+        } finally {
+            if (w != null) {
+                try {
+                    w.close();
+                } catch (IOException e) {
+                    System.out.println("Could not write results.csv: " + e.getMessage());
+                }
+            }
+            stage.rows(n);
+            stage.close();
+        }
+        rejects.close();
+        rejects.print();
+
+        if (n == 0) {
             System.out.println("No applicants found. Check CSV header and path.");
             return;
         }
 
-        // Compute scores
-        List<Row> rows = new ArrayList<>();
-        for (Applicant a : applicants) {
-            rows.add(new Row(a, Admissions.blindScore(a), Admissions.awareScore(a)));
+        try (Stages.Scope s = stages.start("report")) {
+            System.out.println("=== Ethical Admissions Results ===");
+            System.out.printf("Applicants: %d%n", n);
+            System.out.printf("Cutoff: %.3f%n", cutoff);
+            System.out.printf("Overall admit rate BLIND: %.3f%n", (double) admitsBlind / n);
+            System.out.printf("Overall admit rate AWARE: %.3f%n", (double) admitsAware / n);
+            AdmissionsEvents.FairnessReport event = new AdmissionsEvents.FairnessReport();
+            event.begin();
+            for (int d = 0; d < ds.length; d++) printGroupCounts(ds[d].title, groups.get(d));
+            event.end();
+            if (event.shouldCommit()) Fairness.commit(event, dims, n, admitsBlind, admitsAware);
+            s.rows(n);
         }
+        System.out.println("\nSaved: results.csv");
+    }
 
+    // counts per group: { n, blind admits, aware admits }
+    private static void printGroupCounts(String title, Map<String, int[]> counts) {
+        int[] flat = new int[3 * counts.size()];
+        int g = 0;
+        for (int[] c : counts.values()) System.arraycopy(c, 0, flat, 3 * g++, 3);
+        Fairness.print(title, counts.keySet().toArray(new String[0]), flat);
+    }
+
+    // ---------- Main ----------
+    public static void main(String[] args) {
         // Parse args for K or cutoff
         Integer K = 120;          // default top-K
         Double cutoff = null;     // if provided, use cutoff instead
+        int parseThreads = 1;     // >1 parses record-aligned chunks in parallel
+        boolean stream = false;   // with --cutoff, one pass without holding the rows
+        boolean select = false;   // top-K by bounded heap instead of a full sort
+        int ranks = 0;            // with select: rank at least this many rows per model
+        List<Fairness.Dimension> groups = Fairness.DEFAULT;
+        String input = null;      // CSV file (plain or .gz / .deflate), or a directory or glob of shards
+        String snapshot = null;   // binary copy of the parsed CSV, reused while the CSV is unchanged
+        String timingsJson = null; // also write the stage summary here as JSON
+        String rejectsFile = "rejects.csv"; // every skipped row, with its reason; empty for none
+        String blindModel = null, awareModel = null; // ScoringPolicy files replacing the built-in models
+        String sweep = null;      // policy list to sweep instead of the blind/aware comparison
+        List<String> whatIf = new ArrayList<>(); // aware policy changes to try after the run, in order
         for (String arg : args) {
             if (arg.startsWith("--k=")) {
                 K = Integer.parseInt(arg.substring(4));
             } else if (arg.startsWith("--cutoff=")) {
                 cutoff = Double.parseDouble(arg.substring(9));
                 K = null; // ignore K if cutoff is specified
+            } else if (arg.startsWith("--parse-threads=")) {
+                parseThreads = Integer.parseInt(arg.substring(16));
+            } else if (arg.equals("--stream")) {
+                stream = true;
+            } else if (arg.equals("--select")) {
+                select = true;
+            } else if (arg.startsWith("--input=")) {
+                input = arg.substring(8);
+            } else if (arg.equals("--snapshot")) {
+                snapshot = "";
+            } else if (arg.startsWith("--snapshot=")) {
+                snapshot = arg.substring(11);
+            } else if (arg.startsWith("--groups=")) {
+                groups = Fairness.parse(arg.substring(9));
+            } else if (arg.startsWith("--blind-model=")) {
+                blindModel = arg.substring(14);
+            } else if (arg.startsWith("--aware-model=")) {
+                awareModel = arg.substring(14);
+            } else if (arg.startsWith("--what-if=")) {
+                whatIf.add(arg.substring(10));
+            } else if (arg.startsWith("--sweep=")) {
+                sweep = arg.substring(8);
+            } else if (arg.startsWith("--rejects=")) {
+                rejectsFile = arg.substring(10);
+            } else if (arg.startsWith("--timings-json=")) {
+                timingsJson = arg.substring(15);
+            } else if (arg.startsWith("--ranks=")) {
+                ranks = Integer.parseInt(arg.substring(8));
+                select = true;
             }
         }
 
-        if (cutoff != null) {
-            admitByCutoff(rows, cutoff);
-        } else {
-            // do top-K for each model independently
-            admitTopK(rows, K, false); // BLIND
-            admitTopK(rows, K, true);  // AWARE
+        if (input == null) {
+            input = !new File("applicants.csv").exists() && new File("applicants.csv.gz").exists()
+                    ? "applicants.csv.gz" : "applicants.csv";
+        }
+        List<String> files;
+        try {
+            files = Shards.resolve(input);
+        } catch (IOException e) {
+            System.out.println("Could not list input " + input + ": " + e.getMessage());
+            return;
+        }
+        if (files.isEmpty()) {
+            System.out.println("No input files match " + input);
+            return;
+        }
+        List<Shards.Shard> shards = new ArrayList<>();
+        for (String f : files) shards.add(new Shards.Shard(f));
+        boolean sharded = !files.equals(List.of(input)); // a directory or glob, even of one file
+        if (sharded && snapshot != null) {
+            System.out.println("Snapshots cover a single input file; reading the shards instead");
+            snapshot = null;
+        }
+        if ("".equals(snapshot)) snapshot = input.replaceFirst("\\.(gz|gzip|deflate|zz)$", "") + ".snap";
+
+        ScoringModel blind = ScoringModel.BLIND, aware = ScoringModel.AWARE;
+        ScoringPolicy awarePolicy = ScoringPolicy.aware();
+        String path = null;
+        try {
+            if ((path = blindModel) != null) blind = ScoringModel.load(path);
+            if ((path = awareModel) != null) {
+                awarePolicy = ScoringPolicy.load(path);
+                aware = awarePolicy.compile();
+            }
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Could not load scoring model " + path + ": " + e.getMessage());
+            return;
+        }
+
+        // Sweeps and what-ifs rescore the whole table, which a stream never holds.
+        if (stream && (sweep != null || !whatIf.isEmpty())) {
+            System.out.println("--stream can't be combined with " + (sweep != null ? "--sweep" : "--what-if")
+                    + ": it needs every row in memory. Drop --stream to run it.");
+            return;
+        }
+
+        // Top-K needs every score before it can admit anyone, so --stream only applies to cutoff.
+        // Streaming scores Applicant objects with the built-in models; loaded ones run on the table.
+        Stages stages = new Stages();
+        RejectSink rejects = new RejectSink(RejectSink.SAMPLE, rejectsFile.isEmpty() ? null : rejectsFile);
+        if (stream && cutoff != null && blindModel == null && awareModel == null) {
+            runStreamingCutoff(shards, parseThreads, cutoff, groups, rejects, stages);
+            if (sharded) Shards.print(shards);
+            finish(stages, timingsJson);
+            return;
+        }
+
+        ApplicantTable table;
+        try (Stages.Scope s = stages.start("load")) {
+            if (sharded) {
+                int threads = parseThreads > 1 ? parseThreads : Runtime.getRuntime().availableProcessors();
+                table = Shards.read(shards, threads, rejects);
+            } else {
+                table = snapshot != null
+                        ? ApplicantSnapshot.load(input, snapshot, parseThreads, rejects)
+                        : MappedCsvReader.readTable(input, parseThreads, rejects);
+            }
+            s.rows(table.size());
+        }
+        rejects.close();
+        rejects.print();
+        if (sharded) Shards.print(shards);
+        if (table.size() == 0) {
+            System.out.println("No applicants found. Check CSV header and path.");
+            finish(stages, timingsJson);
+            return;
+        }
+
+        if (sweep != null) {
+            runSweep(table, sweep, K, cutoff, groups, stages);
+            finish(stages, timingsJson);
+            return;
+        }
+
+        // Compute scores
+        Results res = new Results(table);
+        try (Stages.Scope s = stages.start("score")) {
+            if (blind == ScoringModel.BLIND && aware == ScoringModel.AWARE) {
+                Admissions.scoreBoth(table, res.blind, res.aware);
+            } else {
+                blind.scores(table, res.blind);
+                aware.scores(table, res.aware);
+            }
+            s.rows(res.size());
+        }
+
+        try (Stages.Scope s = stages.start("admit")) {
+            if (cutoff != null) {
+                admitByCutoff(res, cutoff);
+            } else if (select) {
+                admitTopKSelect(res, K, ranks, false); // BLIND
+                admitTopKSelect(res, K, ranks, true);  // AWARE
+            } else {
+                // do top-K for each model independently
+                admitTopK(res, K);
+            }
+            s.rows(res.size());
         }
 
         // Report
-        System.out.println("=== Ethical Admissions Results ===");
-        System.out.printf("Applicants: %d%n", rows.size());
-        if (cutoff != null) System.out.printf("Cutoff: %.3f%n", cutoff);
-        else                System.out.printf("Top-K:  %d%n", K);
+        try (Stages.Scope s = stages.start("report")) {
+            System.out.println("=== Ethical Admissions Results ===");
+            System.out.printf("Applicants: %d%n", res.size());
+            if (cutoff != null) System.out.printf("Cutoff: %.3f%n", cutoff);
+            else                System.out.printf("Top-K:  %d%n", K);
 
-        System.out.printf("Overall admit rate BLIND: %.3f%n", rate(rows, false));
-        System.out.printf("Overall admit rate AWARE: %.3f%n", rate(rows, true));
+            System.out.printf("Overall admit rate BLIND: %.3f%n", rate(res, false));
+            System.out.printf("Overall admit rate AWARE: %.3f%n", rate(res, true));
 
-        printGroupRates(rows, "By First-Gen", a -> a.firstGen ? "FirstGen" : "NonFirstGen");
-        printGroupRates(rows, "By Legacy",    a -> a.legacy ? "Legacy" : "NonLegacy");
-        printGroupRates(rows, "By Income",    a -> incomeBracket(a.income));
+            Fairness.report(groups, table, res.admitBlind, res.admitAware);
+            s.rows(res.size());
+        }
 
-        writeResultsCSV("results.csv", rows);
+        if (!whatIf.isEmpty()) {
+            try (Stages.Scope s = stages.start("what-if")) {
+                runWhatIf(res, awarePolicy, whatIf, K, cutoff, groups);
+                s.rows(res.size());
+            }
+        }
+
+        try (Stages.Scope s = stages.start("write")) {
+            writeResultsCSV("results.csv", res);
+            s.rows(res.order.length);
+        }
         System.out.println("\nSaved: results.csv");
+        finish(stages, timingsJson);
+    }
+
+    // ---------- What-if ----------
+    // Applies each change cumulatively to the aware policy through a Rescorer and compares
+    // the resulting admits with the Rescorer's own admits before any change, so a change
+    // that leaves the scores alone reports +0 -0.
+    private static void runWhatIf(Results res, ScoringPolicy policy, List<String> changes,
+                                  Integer K, Double cutoff, List<Fairness.Dimension> dims) {
+        Rescorer r = new Rescorer(res.t, policy);
+        int n = res.size();
+        boolean[] base = new boolean[n];
+        whatIfAdmits(r, K, cutoff, base);
+        boolean[] admit = new boolean[n];
+        System.out.println("\n=== What-if (AWARE) ===");
+        for (String change : changes) {
+            int eq = change.indexOf('=');
+            long t0 = System.nanoTime();
+            try {
+                if (eq <= 0) throw new IllegalArgumentException("expected key=value");
+                r.set(change.substring(0, eq), change.substring(eq + 1));
+            } catch (IllegalArgumentException e) {
+                System.out.println("Skipping what-if " + change + ": " + e.getMessage());
+                continue;
+            }
+            whatIfAdmits(r, K, cutoff, admit);
+            double ms = (System.nanoTime() - t0) / 1e6;
+
+            int gained = 0, lost = 0, admits = 0;
+            for (int i = 0; i < n; i++) {
+                if (admit[i]) admits++;
+                if (admit[i] && !base[i]) gained++;
+                if (!admit[i] && base[i]) lost++;
+            }
+            StringBuilder gaps = new StringBuilder();
+            int[][] counts = Fairness.count(dims, res.t, base, admit);
+            for (int d = 0; d < dims.size(); d++) {
+                gaps.append(String.format("  %s gap %.3f", dims.get(d).title.replace("By ", ""), Fairness.gap(counts[d], 2)));
+            }
+            System.out.printf("  %-24s rate %.3f  +%d -%d%s  (%.1f ms)%n",
+                    change, (double) admits / n, gained, lost, gaps, ms);
+        }
+    }
+
+    private static void whatIfAdmits(Rescorer r, Integer K, Double cutoff, boolean[] admit) {
+        int n = admit.length;
+        Arrays.fill(admit, false);
+        if (cutoff != null) {
+            for (int i = 0; i < n; i++) admit[i] = r.score[i] >= cutoff;
+        } else {
+            int[] order = r.order();
+            for (int k = 0; k < Math.min(K, n); k++) admit[order[k]] = true;
+        }
+    }
+
+    // ---------- Policy sweep ----------
+    private static void runSweep(ApplicantTable table, String path, Integer K, Double cutoff,
+                                 List<Fairness.Dimension> dims, Stages stages) {
+        List<Sweep.Policy> policies;
+        try {
+            policies = Sweep.load(path);
+        } catch (IOException | IllegalArgumentException e) {
+            System.out.println("Could not read sweep file " + path + ": " + e.getMessage());
+            return;
+        }
+        Sweep.Groups groups = new Sweep.Groups(dims, table);
+        Sweep.Result[] results;
+        try (Stages.Scope s = stages.start("sweep")) {
+            int threads = Runtime.getRuntime().availableProcessors();
+            results = Sweep.run(table, policies, K == null ? 0 : K, cutoff, groups, threads);
+            s.rows((long) table.size() * policies.size());
+        }
+
+        try (Stages.Scope s = stages.start("report")) {
+            System.out.println("=== Policy Sweep ===");
+            System.out.printf("Applicants: %d%n", table.size());
+            if (cutoff != null) System.out.printf("Cutoff: %.3f%n", cutoff);
+            else                System.out.printf("Top-K:  %d%n", K);
+            Sweep.print(results, groups, table.size());
+            Sweep.writeCsv("sweep.csv", results, groups, table.size());
+            s.rows(results.length);
+        } catch (IOException e) {
+            System.out.println("Could not write sweep.csv: " + e.getMessage());
+            return;
+        }
+        System.out.println("\nSaved: sweep.csv");
+    }
+
+    private static void finish(Stages stages, String timingsJson) {
+        stages.printSummary();
+        if (timingsJson != null) stages.writeJson(timingsJson);
     }
 }
@@ -0,0 +1,400 @@
+// MappedCsvReader.java
+// Memory-mapped, byte-level CSV ingestion. Same quoting rules as Main.parseCSVLine,
+// but fields are decoded straight from the mapped bytes (no per-line String). Columns are
+// found by header name (CsvColumns); columns no field maps to are never decoded.
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class MappedCsvReader {
+
+    static final int FIELDS = CsvColumns.FIELDS.length;
+
+    // Largest single mapping; a record never straddles two windows.
+    static final long WINDOW = 1L << 30;
+
+    // Smallest parallel range, and the window used when looking for a line break.
+    static final long MIN_CHUNK = 1L << 20;
+    static final long SCAN = 1L << 16;
+
+    public static ApplicantTable readTable(String filename) {
+        return readTable(filename, 1);
+    }
+
+    // Skipped rows are summed up on the console once the file is read.
+    public static ApplicantTable readTable(String filename, int threads) {
+        RejectSink rejects = new RejectSink();
+        ApplicantTable t = readTable(filename, threads, rejects);
+        rejects.close();
+        rejects.print();
+        return t;
+    }
+
+    public static ApplicantTable readTable(String filename, int threads, RejectSink rejects) {
+        try {
+            return read(filename, threads, rejects.source(filename)).table;
+        } catch (IOException e) {
+            System.out.println("Error reading file: " + e.getMessage());
+            return new ApplicantTable();
+        }
+    }
+
+    // Splits the data section into record-aligned byte ranges and parses them on a
+    // fork-join pool; per-range tables are merged in file order. A range can't know its
+    // line numbers until the ranges before it are counted, so its rejects are held back
+    // and passed on, renumbered, during the merge.
+    static Chunk read(String filename, int threads, RejectSink.Source rejects) throws IOException {
+        if (CompressedInput.isCompressed(filename)) return readCompressed(filename, threads, rejects);
+        try (RandomAccessFile raf = new RandomAccessFile(filename, "r");
+             FileChannel ch = raf.getChannel()) {
+            long start = nextRecord(ch, 0), size = ch.size();
+            CsvColumns columns = header(ch);
+            long firstLine = firstLine(ch, start);
+            Chunk all = new Chunk();
+            if (threads <= 1) {
+                Cursor c = new Cursor(ch, start, size, columns);
+                c.nextLine = firstLine;
+                all.malformed = parse(c, all.table, rejects::reject);
+                return all;
+            }
+            List<Callable<Chunk>> tasks = new ArrayList<>();
+            for (long[] r : split(ch, start, size, threads * 4)) {
+                tasks.add(() -> {
+                    Chunk k = new Chunk();
+                    Cursor c = new Cursor(ch, r[0], r[1], columns);
+                    k.malformed = parse(c, k.table, (line, offset, reason, text) ->
+                            k.rejected.add(new RejectSink.Row(null, line, offset, reason, text)));
+                    k.lines = c.nextLine - 1;
+                    return k;
+                });
+            }
+            List<ApplicantTable> parts = new ArrayList<>();
+            ForkJoinPool pool = new ForkJoinPool(threads);
+            try {
+                long line = firstLine;
+                for (Future<Chunk> f : pool.invokeAll(tasks)) {
+                    Chunk k = f.get();
+                    for (RejectSink.Row r : k.rejected) rejects.reject(line + r.line - 1, r.offset, r.reason, r.text);
+                    line += k.lines;
+                    parts.add(k.table);
+                    all.malformed += k.malformed;
+                }
+            } catch (InterruptedException | ExecutionException e) {
+                throw new IOException(e.getCause() != null ? e.getCause() : e);
+            } finally {
+                pool.shutdown();
+            }
+            all.table = ApplicantTable.concat(parts);
+            return all;
+        }
+    }
+
+    // .gz / .deflate input is parsed block by block as it is decompressed; the threads go
+    // to inflating gzip members in parallel (CompressedInput).
+    static Chunk readCompressed(String filename, int threads, RejectSink.Source rejects) throws IOException {
+        try (CompressedInput in = CompressedInput.open(filename, threads)) {
+            CsvColumns columns = CsvColumns.resolve(in.header());
+            Chunk all = new Chunk();
+            long line = in.firstLine();
+            for (ByteBuffer block; (block = in.next()) != null; ) {
+                Cursor c = new Cursor(block, in.offset(), columns);
+                c.nextLine = line;
+                all.malformed += parse(c, all.table, rejects::reject);
+                line = c.nextLine;
+            }
+            return all;
+        }
+    }
+
+    static final class Chunk {
+        ApplicantTable table = new ApplicantTable();
+        final List<RejectSink.Row> rejected = new ArrayList<>(); // numbered from the range start
+        int malformed;             // short rows and rows with a bad number
+        long lines;                // line breaks in the range
+    }
+
+    // Where parse sends a skipped row: a RejectSink source, or a range's held-back list.
+    interface Rejects {
+        void reject(long line, long offset, int reason, String text);
+    }
+
+    // Line number of the record at 'start', just past the header: the "\n" of a "\r\n"
+    // header is still ahead of it, and counted by the cursor.
+    static long firstLine(FileChannel ch, long start) throws IOException {
+        return start > 0 && ch.map(FileChannel.MapMode.READ_ONLY, start - 1, 1).get(0) == '\n' ? 2 : 1;
+    }
+
+    // Returns the number of malformed rows skipped.
+    static int parse(Cursor c, ApplicantTable t, Rejects rejects) throws IOException {
+        AdmissionsEvents.ParseChunk event = new AdmissionsEvents.ParseChunk();
+        event.begin();
+        long start = c.pos, end = c.end;
+        int rows0 = t.size(), malformed = 0;
+        while (c.next()) {
+            if (c.isShort()) { // skip malformed
+                malformed++;
+                reject(c, RejectSink.SHORT_ROW, rejects);
+                continue;
+            }
+            try {
+                c.appendTo(t);
+            } catch (NumberFormatException e) {
+                malformed++;
+                reject(c, c.badNumber(), rejects);
+            }
+        }
+        event.end();
+        if (event.shouldCommit()) {
+            event.start = start;
+            event.end = end;
+            event.rows = t.size() - rows0;
+            event.malformed = malformed;
+            event.commit();
+        }
+        return malformed;
+    }
+
+    private static void reject(Cursor c, int reason, Rejects rejects) {
+        String line = c.lineText();
+        rejects.reject(c.line, c.base + c.recStart, reason, line);
+        malformedRow(c, RejectSink.REASONS[reason], line);
+    }
+
+    static void malformedRow(Cursor c, String reason, String line) {
+        AdmissionsEvents.MalformedRow event = new AdmissionsEvents.MalformedRow();
+        if (!event.isEnabled()) return;
+        event.offset = c.base + c.recStart;
+        event.reason = reason;
+        event.fields = c.fieldCount;
+        event.line = line;
+        event.commit();
+    }
+
+    // Cuts [start, end) into about n ranges, each ending just after a line break.
+    // Quotes never span lines in this format (parseCSVLine works per line), so a
+    // line break is always a record boundary and a cut can't land inside "Boston, MA".
+    static List<long[]> split(FileChannel ch, long start, long end, int n) throws IOException {
+        List<long[]> ranges = new ArrayList<>();
+        long step = Math.max((end - start) / n, MIN_CHUNK);
+        long s = start;
+        while (s < end) {
+            long e = s + step >= end ? end : nextRecord(ch, s + step);
+            ranges.add(new long[] { s, e });
+            s = e;
+        }
+        return ranges;
+    }
+
+    // Column plan from the header line.
+    static CsvColumns header(FileChannel ch) throws IOException {
+        int n = (int) Math.min(nextRecord(ch, 0), WINDOW);
+        byte[] line = new byte[n];
+        ch.map(FileChannel.MapMode.READ_ONLY, 0, n).get(line);
+        while (n > 0 && (line[n - 1] == '\n' || line[n - 1] == '\r')) n--;
+        return n == 0 ? CsvColumns.POSITIONAL : CsvColumns.resolve(new String(line, 0, n, StandardCharsets.UTF_8));
+    }
+
+    // File offset just past the first line break at or after 'from' (the header, for from = 0).
+    static long nextRecord(FileChannel ch, long from) throws IOException {
+        long size = ch.size();
+        long base = from;
+        while (base < size) {
+            MappedByteBuffer buf = ch.map(FileChannel.MapMode.READ_ONLY, base, Math.min(size - base, SCAN));
+            for (int i = 0; i < buf.limit(); i++) {
+                byte b = buf.get(i);
+                if (b == '\n' || b == '\r') return base + i + 1;
+            }
+            base += buf.limit();
+        }
+        return size;
+    }
+
+    // ---------- Record cursor ----------
+    // Walks the records in [start, end) of a file. '\r' and '\n' both end a record
+    // (like BufferedReader.readLine); the empty record left by "\r\n" is skipped as blank.
+    // Line numbers count '\n' only, so "\r\n" files number like "\n" files.
+    static final class Cursor {
+        final FileChannel ch;
+        final long end;
+        final CsvColumns columns;
+        long pos;                 // file offset of the next record
+        ByteBuffer buf;           // current window
+        long base;                // file offset of buf[0]
+        int recStart, recEnd;     // current record, window-relative, without terminator
+        int fieldCount;           // columns split so far; stops at columns.width
+        long line;                // line number of the current record
+        long nextLine = 1;        // line number at pos; callers set it for ranges past the first line
+        final int[] fs = new int[FIELDS];        // field bounds by field index, trimmed of blanks and quotes
+        final int[] fe = new int[FIELDS];
+        byte[] scratch = new byte[64];
+
+        Cursor(FileChannel ch, long start, long end, CsvColumns columns) {
+            this.ch = ch;
+            this.pos = start;
+            this.end = end;
+            this.columns = columns;
+        }
+
+        // A block already in memory, such as decompressed input; 'at' is its stream offset.
+        Cursor(ByteBuffer block, long at, CsvColumns columns) {
+            this(null, at, at + block.limit(), columns);
+            buf = block;
+            base = at;
+        }
+
+        private void map(long at) throws IOException {
+            base = at;
+            buf = ch.map(FileChannel.MapMode.READ_ONLY, at, Math.min(end - at, WINDOW));
+        }
+
+        boolean next() throws IOException {
+            while (pos < end) {
+                if (buf == null || pos < base || pos >= base + buf.limit()) map(pos);
+                int i = (int) (pos - base), lim = buf.limit();
+                int j = i;
+                while (j < lim) {
+                    byte b = buf.get(j);
+                    if (b == '\n' || b == '\r') break;
+                    j++;
+                }
+                if (j == lim && base + lim < end) {
+                    if (i == 0) throw new IOException("Record longer than " + WINDOW + " bytes at offset " + pos);
+                    map(pos); // record straddles the window; remap from its start
+                    continue;
+                }
+                recStart = i;
+                recEnd = j;
+                pos = base + j + 1;
+                line = nextLine;
+                if (j < lim && buf.get(j) == '\n') nextLine++;
+                if (split()) return true;
+            }
+            return false;
+        }
+
+        // Splits the current record into fields; false for a blank line. Splitting stops
+        // after the last column the plan reads; trailing export columns are only scanned for the line end.
+        private boolean split() {
+            boolean blank = true;
+            int n = 0, s = recStart, width = columns.width;
+            boolean inQuotes = false;
+            for (int k = recStart; k < recEnd; k++) {
+                byte b = buf.get(k);
+                if ((b & 0xFF) > ' ') blank = false;
+                if (b == '"') {
+                    inQuotes = !inQuotes;
+                } else if ((b == ',' || b == '\t') && !inQuotes) {
+                    field(n++, s, k);
+                    s = k + 1;
+                    if (n == width && !blank) {
+                        fieldCount = n;
+                        return true;
+                    }
+                }
+            }
+            field(n++, s, recEnd);
+            fieldCount = n;
+            return !blank;
+        }
+
+        // Column n of the record; kept only if the plan maps it to a field.
+        private void field(int n, int s, int e) {
+            int f = n < columns.width ? columns.slot[n] : -1;
+            if (f < 0) return;
+            while (s < e && isTrim(buf.get(s))) s++;
+            while (e > s && isTrim(buf.get(e - 1))) e--;
+            fs[f] = s;
+            fe[f] = e;
+        }
+
+        // Too few columns to fill every field.
+        boolean isShort() {
+            return fieldCount < columns.width;
+        }
+
+        // Quotes vanish before String.trim() runs in parseCSVLine, so both are trimmed here.
+        private static boolean isTrim(byte b) {
+            return (b & 0xFF) <= ' ' || b == '"';
+        }
+
+        // Copies field f into scratch without quotes; returns its length.
+        private int copy(int f) {
+            int s = fs[f], e = fe[f];
+            if (scratch.length < e - s) scratch = new byte[Math.max(e - s, scratch.length * 2)];
+            int n = 0;
+            for (int k = s; k < e; k++) {
+                byte b = buf.get(k);
+                if (b == '"') continue;
+                scratch[n++] = b;
+            }
+            return n;
+        }
+
+        String str(int f) {
+            int n = copy(f);
+            return new String(scratch, 0, n, StandardCharsets.UTF_8);
+        }
+
+        int intField(int f) {
+            int n = copy(f);
+            return FieldParsers.parseInt(scratch, 0, n);
+        }
+
+        double doubleField(int f) {
+            int n = copy(f);
+            return FieldParsers.parseDouble(scratch, 0, n);
+        }
+
+        double incomeField(int f) {
+            int n = copy(f);
+            return FieldParsers.parseIncome(scratch, 0, n);
+        }
+
+        boolean yesNoField(int f) {
+            int n = copy(f);
+            return FieldParsers.isYes(scratch, 0, n);
+        }
+
+        Applicant toApplicant() {
+            return new Applicant(
+                str(0), intField(1), str(2), str(3), incomeField(4),
+                yesNoField(5), yesNoField(6), doubleField(7), intField(8), doubleField(9),
+                doubleField(10), doubleField(11), yesNoField(12), yesNoField(13));
+        }
+
+        // Numbers are parsed before anything is added, so a bad row leaves t untouched.
+        void appendTo(ApplicantTable t) {
+            int age = intField(1);
+            double income = incomeField(4);
+            double gpa = doubleField(7);
+            int test = intField(8);
+            double extra = doubleField(9);
+            double essay = doubleField(10);
+            double rec = doubleField(11);
+            t.add(str(0), age, code(2, t.geographyDict), code(3, t.ethnicityDict), income,
+                  yesNoField(5), yesNoField(6), gpa, test, extra, essay, rec,
+                  yesNoField(12), yesNoField(13));
+        }
+
+        // RejectSink.BAD_INT or BAD_DOUBLE, after appendTo or toApplicant threw.
+        int badNumber() {
+            return RejectSink.badNumber(this::str);
+        }
+
+        private int code(int f, ApplicantTable.StringDict dict) {
+            int n = copy(f);
+            return dict.encode(scratch, 0, n);
+        }
+
+        String lineText() {
+            byte[] line = new byte[recEnd - recStart];
+            buf.get(recStart, line);
+            return new String(line, StandardCharsets.UTF_8);
+        }
+    }
+}
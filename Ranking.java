@@ -0,0 +1,228 @@
+// Ranking.java
+// Ranking helpers for top-K admission. Rankings are int[] permutations of row indexes;
+// the applicant table and score arrays are never reordered.
+
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+
+public class Ranking {
+
+    // Rank value for rows outside the ranked top M
+    static final int UNRANKED = -1;
+
+    // Admission order: higher score, then higher test, then higher GPA, then name (case-insensitive).
+    static int compare(double[] score, ApplicantTable t, int i1, int i2) {
+        double s1 = score[i1];
+        double s2 = score[i2];
+        if (s1 == s2) return compareTies(t, i1, i2);
+        return Double.compare(s2, s1);
+    }
+
+    // The tie-break between equal scores: higher test, then higher GPA, then name.
+    static int compareTies(ApplicantTable t, int i1, int i2) {
+        if (t.test[i2] != t.test[i1]) return Integer.compare(t.test[i2], t.test[i1]);
+        if (t.gpa[i2] != t.gpa[i1]) return Double.compare(t.gpa[i2], t.gpa[i1]);
+        return t.name[i1].compareToIgnoreCase(t.name[i2]);
+    }
+
+    // compare(), with row order breaking exact ties (what a stable sort would do)
+    static int compareStable(double[] score, ApplicantTable t, int i1, int i2) {
+        int c = compare(score, t, i1, i2);
+        return c != 0 ? c : Integer.compare(i1, i2);
+    }
+
+    // The best m rows, best first, in O(n log m): a bounded heap keeps the m best seen
+    // so far with the weakest of them at the root, so most rows cost one comparison.
+    static int[] topK(double[] score, ApplicantTable t, int m) {
+        int n = score.length;
+        m = Math.min(m, n);
+        if (m <= 0) return new int[0];
+        int[] heap = new int[m];
+        int size = 0;
+        for (int i = 0; i < n; i++) {
+            if (size < m) {
+                heap[size] = i;
+                siftUp(heap, size++, score, t);
+            } else if (compareStable(score, t, i, heap[0]) < 0) {
+                heap[0] = i;
+                siftDown(heap, size, score, t);
+            }
+        }
+        // pop weakest-first into the back of the result
+        int[] top = new int[m];
+        for (int k = m - 1; k >= 0; k--) {
+            top[k] = heap[0];
+            heap[0] = heap[--size];
+            siftDown(heap, size, score, t);
+        }
+        return top;
+    }
+
+    // Parent ranks after its children (max-heap on admission order).
+    private static void siftUp(int[] heap, int k, double[] score, ApplicantTable t) {
+        int x = heap[k];
+        while (k > 0) {
+            int p = (k - 1) >>> 1;
+            if (compareStable(score, t, x, heap[p]) <= 0) break;
+            heap[k] = heap[p];
+            k = p;
+        }
+        heap[k] = x;
+    }
+
+    private static void siftDown(int[] heap, int size, double[] score, ApplicantTable t) {
+        if (size == 0) return;
+        int k = 0, x = heap[0];
+        while (true) {
+            int c = 2 * k + 1;
+            if (c >= size) break;
+            if (c + 1 < size && compareStable(score, t, heap[c + 1], heap[c]) > 0) c++;
+            if (compareStable(score, t, heap[c], x) <= 0) break;
+            heap[k] = heap[c];
+            k = c;
+        }
+        heap[k] = x;
+    }
+
+    // Every row index: 'top' first in its order, then the rest in row order.
+    static int[] rankedFirst(int[] top, int n) {
+        int[] order = new int[n];
+        boolean[] seen = new boolean[n];
+        System.arraycopy(top, 0, order, 0, top.length);
+        for (int r : top) seen[r] = true;
+        int k = top.length;
+        for (int i = 0; i < n; i++) if (!seen[i]) order[k++] = i;
+        return order;
+    }
+
+
+    // ---------- Full rankings ----------
+    // Both models at once: blind on a pool thread, aware on the caller's. The numeric
+    // tie-break order (test, GPA) doesn't depend on the model, so it's built once.
+    static int[][] rankBoth(double[] blind, double[] aware, ApplicantTable t) {
+        int[] ties = tieOrder(t);
+        CompletableFuture<int[]> b = CompletableFuture.supplyAsync(() -> sortedOrder(blind, t, ties));
+        int[] a = sortedOrder(aware, t, ties);
+        return new int[][] { b.join(), a };
+    }
+
+    // All rows in admission order; exact ties keep row order.
+    static int[] sortedOrder(double[] score, ApplicantTable t) {
+        return sortedOrder(score, t, tieOrder(t));
+    }
+
+    // Radix-sorts packed score keys starting from the (test, GPA) order; the sort is
+    // stable, so rows with equal scores stay in that order. Only rows that also tie on
+    // test and GPA still need their names compared, and those runs are short.
+    // Falls back to a comparator sort when a score is NaN.
+    static int[] sortedOrder(double[] score, ApplicantTable t, int[] ties) {
+        int n = score.length;
+        for (double s : score) {
+            if (Double.isNaN(s)) { // NaN == NaN is false in compare()
+                int[] order = new int[n];
+                for (int i = 0; i < n; i++) order[i] = i;
+                mergeSort(order, new int[n], 0, n, score, t);
+                return order;
+            }
+        }
+        int[] order = ties.clone();
+        long[] keys = new long[n];
+        for (int k = 0; k < n; k++) keys[k] = ~scoreKey(score[order[k]]); // descending
+        radixSort(keys, order);
+        sortNameTies(order, score, t);
+        return order;
+    }
+
+    // Within each run of 'order' that ties on score, test and GPA (and is otherwise in
+    // row order), sorts by name; the merge sort is stable, so equal names keep row order.
+    static void sortNameTies(int[] order, double[] score, ApplicantTable t) {
+        int n = order.length;
+        int[] tmp = null;
+        for (int lo = 0, hi; lo < n; lo = hi) {
+            int r = order[lo];
+            for (hi = lo + 1; hi < n; hi++) {
+                int i = order[hi];
+                if (score[i] != score[r] || t.test[i] != t.test[r] || t.gpa[i] != t.gpa[r]) break;
+            }
+            if (hi - lo < 2) continue;
+            if (tmp == null) tmp = new int[n];
+            mergeSort(order, tmp, lo, hi, score, t);
+        }
+    }
+
+    // Unsigned-comparable bits of a double; -0.0 is folded into 0.0 since compare() uses ==.
+    static long scoreKey(double s) {
+        long bits = Double.doubleToLongBits(s + 0.0);
+        return bits ^ ((bits >> 63) | Long.MIN_VALUE);
+    }
+
+    // Rows by (higher test, higher GPA) with row order last: two stable radix passes,
+    // GPA first, then test. Names are left to sortNameTies, once scores have narrowed
+    // ties down to a few rows.
+    static int[] tieOrder(ApplicantTable t) {
+        int n = t.size();
+        int[] order = new int[n];
+        long[] keys = new long[n];
+        for (int i = 0; i < n; i++) {
+            order[i] = i;
+            keys[i] = ~scoreKey(t.gpa[i]); // higher GPA first
+        }
+        radixSort(keys, order);
+        for (int k = 0; k < n; k++) keys[k] = 0xFFFFFFFFL - ((t.test[order[k]] ^ Integer.MIN_VALUE) & 0xFFFFFFFFL); // higher test first
+        radixSort(keys, order);
+        return order;
+    }
+
+    // Stable LSD radix sort on unsigned keys, 8 bits per pass, carrying the row index.
+    // Passes where every key has the same digit are skipped.
+    static void radixSort(long[] keys, int[] idx) {
+        int n = keys.length;
+        if (n < 2) return;
+        long[] k2 = new long[n];
+        int[] i2 = new int[n];
+        int[] count = new int[257];
+        boolean swapped = false;
+        for (int shift = 0; shift < 64; shift += 8) {
+            Arrays.fill(count, 0);
+            for (long k : keys) count[((int) (k >>> shift) & 0xFF) + 1]++;
+            if (count[((int) (keys[0] >>> shift) & 0xFF) + 1] == n) continue;
+            for (int d = 0; d < 256; d++) count[d + 1] += count[d];
+            for (int i = 0; i < n; i++) {
+                int at = count[(int) (keys[i] >>> shift) & 0xFF]++;
+                k2[at] = keys[i];
+                i2[at] = idx[i];
+            }
+            long[] tk = keys; keys = k2; k2 = tk;
+            int[] ti = idx; idx = i2; i2 = ti;
+            swapped = !swapped;
+        }
+        if (swapped) {
+            System.arraycopy(keys, 0, k2, 0, n);
+            System.arraycopy(idx, 0, i2, 0, n);
+        }
+    }
+
+    // Stable top-down merge sort on row indexes, insertion sort for short runs.
+    private static void mergeSort(int[] a, int[] tmp, int lo, int hi, double[] score, ApplicantTable t) {
+        if (hi - lo <= 16) {
+            for (int i = lo + 1; i < hi; i++) {
+                int x = a[i], j = i - 1;
+                while (j >= lo && compare(score, t, a[j], x) > 0) {
+                    a[j + 1] = a[j];
+                    j--;
+                }
+                a[j + 1] = x;
+            }
+            return;
+        }
+        int mid = (lo + hi) >>> 1;
+        mergeSort(a, tmp, lo, mid, score, t);
+        mergeSort(a, tmp, mid, hi, score, t);
+        if (compare(score, t, a[mid - 1], a[mid]) <= 0) return; // already in order
+        System.arraycopy(a, lo, tmp, lo, hi - lo);
+        int i = lo, j = mid, k = lo;
+        while (i < mid && j < hi) a[k++] = compare(score, t, tmp[j], tmp[i]) < 0 ? tmp[j++] : tmp[i++];
+        while (i < mid) a[k++] = tmp[i++];
+        while (j < hi) a[k++] = tmp[j++];
+    }
+}
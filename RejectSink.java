@@ -0,0 +1,250 @@
+// RejectSink.java
+// Where the CSV readers put the rows they skip. Rejections are counted by reason, the
+// first few (by file and line) are kept for the console summary, and, if a rejects file is
+// set, every rejected row is written there by a background thread, so a dirty feed with
+// hundreds of thousands of bad rows doesn't serialize parsing on console output.
+
+import java.io.*;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+
+public class RejectSink implements AutoCloseable {
+
+    static final int SHORT_ROW = 0, BAD_INT = 1, BAD_DOUBLE = 2;
+    static final String[] REASONS = { "short row", "bad int", "bad double" };
+
+    static final int SAMPLE = 10;           // rows shown in the console summary
+    private static final int QUEUE = 4096;  // rows buffered ahead of the writer
+
+    // Numeric fields in the order the readers parse them (income never fails).
+    private static final int[] NUMBERS = { 1, 7, 8, 9, 10, 11 };
+
+    // A rejected record. line is 1-based, counting the header as line 1, or 0 when unknown
+    // (the back half of a split stream); offset is the byte offset in the (decompressed)
+    // file, or -1 when unknown (the line-based reference reader).
+    static final class Row {
+        final Source source;
+        final long line, offset;
+        final int reason;
+        final String text;
+
+        Row(Source source, long line, long offset, int reason, String text) {
+            this.source = source;
+            this.line = line;
+            this.offset = offset;
+            this.reason = reason;
+            this.text = text;
+        }
+    }
+
+    // Rejections from one input file. Sources are numbered in creation order, which is
+    // also the order the sample is kept in.
+    final class Source {
+        final String file;
+        private final int index;
+        private final AtomicInteger rejected = new AtomicInteger();
+
+        private Source(String file, int index) {
+            this.file = file;
+            this.index = index;
+        }
+
+        void reject(long line, long offset, int reason, String text) {
+            rejected.incrementAndGet();
+            add(new Row(this, line, offset, reason, text));
+        }
+
+        int rejected() {
+            return rejected.get();
+        }
+    }
+
+    private static final Row END = new Row(null, 0, 0, 0, null);
+    private static final Comparator<Row> FILE_ORDER = Comparator.<Row>comparingInt(r -> r.source.index)
+            .thenComparingLong(r -> r.offset).thenComparingLong(r -> r.line);
+
+    private final AtomicLongArray counts = new AtomicLongArray(REASONS.length);
+    private final AtomicInteger sources = new AtomicInteger();
+    private final int sampleSize;
+    private final PriorityQueue<Row> sample; // the sampleSize earliest rows, latest on top
+    private final String path;               // rejects file, or null
+    private final BlockingQueue<Row> queue = new ArrayBlockingQueue<>(QUEUE);
+    private Thread writer;                   // started with the first rejection
+    private volatile IOException failure;
+
+    // Counts and a sample only.
+    RejectSink() {
+        this(SAMPLE, null);
+    }
+
+    // path: where every rejected row goes, as CSV; null for none. The file is only
+    // created once a row is rejected.
+    RejectSink(int sampleSize, String path) {
+        this.sampleSize = sampleSize;
+        this.path = path;
+        this.sample = new PriorityQueue<>(Math.max(1, sampleSize), FILE_ORDER.reversed());
+    }
+
+    Source source(String file) {
+        return new Source(file, sources.getAndIncrement());
+    }
+
+    // BAD_INT or BAD_DOUBLE for a row whose numbers didn't parse: the first numeric field,
+    // in reading order, that fails. field(f) is the text of field f.
+    static int badNumber(IntFunction<CharSequence> field) {
+        for (int f : NUMBERS) {
+            try {
+                if (f == 1 || f == 8) FieldParsers.parseInt(field.apply(f));
+                else FieldParsers.parseDouble(field.apply(f));
+            } catch (NumberFormatException e) {
+                return f == 1 || f == 8 ? BAD_INT : BAD_DOUBLE;
+            }
+        }
+        return BAD_DOUBLE;
+    }
+
+    private void add(Row r) {
+        counts.incrementAndGet(r.reason);
+        synchronized (sample) {
+            if (sample.size() < sampleSize) sample.add(r);
+            else if (sampleSize > 0 && FILE_ORDER.compare(r, sample.peek()) < 0) {
+                sample.poll();
+                sample.add(r);
+            }
+        }
+        if (path == null) return;
+        try {
+            synchronized (queue) {
+                if (writer == null) {
+                    writer = new Thread(this::write, "rejects " + path);
+                    writer.setDaemon(true);
+                    writer.start();
+                }
+            }
+            queue.put(r);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    long count(int reason) {
+        return counts.get(reason);
+    }
+
+    long total() {
+        long n = 0;
+        for (int r = 0; r < REASONS.length; r++) n += counts.get(r);
+        return n;
+    }
+
+    // The sampled rows, in file order.
+    List<Row> sample() {
+        List<Row> rows;
+        synchronized (sample) {
+            rows = new ArrayList<>(sample);
+        }
+        rows.sort(FILE_ORDER);
+        return rows;
+    }
+
+    // ---------- Rejects file ----------
+    // file,line,offset,reason,row, in the order rows arrive: file order for a single
+    // reader, interleaved by file when shards are read concurrently.
+    private void write() {
+        BufferedWriter out = null;
+        try {
+            out = Files.newBufferedWriter(Paths.get(path), StandardCharsets.UTF_8);
+            out.write("file,line,offset,reason,row\n");
+        } catch (IOException e) {
+            failure = e;
+        }
+        while (true) {
+            Row r;
+            try {
+                r = queue.take();
+            } catch (InterruptedException e) {
+                break;
+            }
+            if (r == END) break;
+            if (out == null) continue; // keep draining so readers never block
+            try {
+                out.write(quote(r.source.file));
+                out.write(',');
+                if (r.line > 0) out.write(Long.toString(r.line));
+                out.write(',');
+                if (r.offset >= 0) out.write(Long.toString(r.offset));
+                out.write(',');
+                out.write(REASONS[r.reason]);
+                out.write(',');
+                out.write(quote(r.text));
+                out.write('\n');
+            } catch (IOException e) {
+                failure = e;
+                out = close(out);
+            }
+        }
+        if (out != null) {
+            try {
+                out.close();
+            } catch (IOException e) {
+                failure = e;
+            }
+        }
+    }
+
+    private BufferedWriter close(BufferedWriter out) {
+        try {
+            out.close();
+        } catch (IOException e) {
+            // already failed
+        }
+        return null;
+    }
+
+    private static String quote(String s) {
+        return "\"" + s.replace("\"", "\"\"") + "\"";
+    }
+
+    // Waits for the rejects file to be written out.
+    @Override
+    public void close() {
+        Thread w;
+        synchronized (queue) {
+            w = writer;
+        }
+        if (w == null) return;
+        try {
+            queue.put(END);
+            w.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    // ---------- Summary ----------
+    // Nothing when every row was read.
+    void print() {
+        long total = total();
+        if (total == 0) return;
+        StringJoiner by = new StringJoiner(", ");
+        for (int r = 0; r < REASONS.length; r++) if (counts.get(r) > 0) by.add(counts.get(r) + " " + REASONS[r]);
+        System.out.printf("Skipped %d malformed row%s: %s%n", total, total == 1 ? "" : "s", by);
+        List<Row> rows = sample();
+        for (Row r : rows) {
+            String at = r.line > 0 ? ":" + r.line : " @" + r.offset;
+            System.out.println("  " + r.source.file + at + ": " + REASONS[r.reason] + ": " + r.text);
+        }
+        long more = total - rows.size();
+        if (path != null && failure == null) {
+            System.out.println(more > 0 ? "  ... " + more + " more in " + path : "  All in " + path);
+        } else if (more > 0) {
+            System.out.println("  ... " + more + " more");
+        }
+        if (failure != null) System.out.println("Could not write " + path + ": " + failure.getMessage());
+    }
+}
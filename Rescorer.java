@@ -0,0 +1,153 @@
+// Rescorer.java
+// Keeps one policy's scores and ranking current while its weights and boosts change,
+// for what-if tuning. Normalized features, boost masks and the linear part of every
+// score are cached. A weight or scale change recomputes the linear part from the cached
+// features in fixed order, so undoing a change restores the exact scores; a boost change
+// only touches rows that have that boost.
+
+public class Rescorer {
+
+    private final ApplicantTable t;
+    private ScoringPolicy policy;
+    private final double[][] feature;   // [f][i] = raw value / scale
+    private final byte[] mask;          // flag bits plus ScoringPolicy.LOW_INCOME
+    private final double[] linear;      // weighted feature sum, before boosts and cap
+    private double[] boostTable;
+    final double[] score;
+    private final int[] ties;           // rows in (test, GPA) tie-break order
+    private int[] order;                // rows in admission order
+
+    Rescorer(ApplicantTable t, ScoringPolicy policy) {
+        int n = t.size();
+        this.t = t;
+        this.policy = policy.copy();
+        feature = new double[ScoringPolicy.FEATURES.length][n];
+        for (int f = 0; f < feature.length; f++) normalize(f);
+        mask = new byte[n];
+        masks();
+        linear = new double[n];
+        linear();
+        boostTable = this.policy.boostTable();
+        score = new double[n];
+        for (int i = 0; i < n; i++) score[i] = total(i);
+
+        ties = Ranking.tieOrder(t);
+        order = Ranking.sortedOrder(score, t, ties);
+    }
+
+    int[] order() {
+        return order;
+    }
+
+    ScoringPolicy policy() {
+        return policy.copy();
+    }
+
+    // Applies one ScoringPolicy key=value change, updating only what it affects.
+    void set(String key, String value) {
+        ScoringPolicy next = policy.copy();
+        next.set(key, value);
+        int n = t.size();
+
+        boolean linearChanged = false;
+        for (int f = 0; f < feature.length; f++) {
+            if (next.scale[f] != policy.scale[f]) {
+                policy.scale[f] = next.scale[f];
+                normalize(f);
+                linearChanged = true;
+            } else if (next.weight[f] != policy.weight[f]) {
+                linearChanged = true;
+            }
+        }
+
+        // Boost mask bits whose amount changed. A new low-income threshold moves rows
+        // between masks, and a new cap can reorder anyone, so those rescore everything.
+        int changed = 0;
+        if (next.boost[0] != policy.boost[0]) changed |= ScoringPolicy.LOW_INCOME;
+        for (int b = 1; b < ScoringPolicy.BOOSTS.length; b++) {
+            if (next.boost[b] != policy.boost[b]) changed |= ScoringPolicy.BOOST_FLAGS[b];
+        }
+        boolean full = linearChanged || next.cap != policy.cap || next.lowIncomeBelow != policy.lowIncomeBelow;
+        boolean newMasks = next.lowIncomeBelow != policy.lowIncomeBelow;
+        policy = next;
+        if (linearChanged) linear();
+        if (newMasks) masks();
+        boostTable = policy.boostTable();
+
+        if (full) {
+            for (int i = 0; i < n; i++) score[i] = total(i);
+            order = Ranking.sortedOrder(score, t, ties);
+        } else if (changed != 0) {
+            rerank(changed);
+        }
+    }
+
+    // Only rows with a changed boost bit move; the rest keep their scores and so their
+    // relative order. Re-sort just the moved rows, then merge them into the untouched
+    // subsequence of the old order.
+    private void rerank(int changed) {
+        int n = t.size(), moved = 0;
+        for (int i = 0; i < n; i++) {
+            if ((mask[i] & changed) != 0) {
+                score[i] = total(i);
+                moved++;
+            }
+        }
+        if (moved == 0) return;
+
+        int[] a = new int[moved];
+        long[] keys = new long[moved];
+        int k = 0;
+        for (int i : ties) if ((mask[i] & changed) != 0) a[k++] = i;
+        for (k = 0; k < moved; k++) keys[k] = ~Ranking.scoreKey(score[a[k]]);
+        Ranking.radixSort(keys, a);
+        Ranking.sortNameTies(a, score, t);
+
+        int[] merged = new int[n];
+        int ai = 0, m = 0;
+        for (int i : order) {
+            if ((mask[i] & changed) != 0) continue;
+            while (ai < moved && before(a[ai], i)) merged[m++] = a[ai++];
+            merged[m++] = i;
+        }
+        while (ai < moved) merged[m++] = a[ai++];
+        order = merged;
+    }
+
+    private boolean before(int i1, int i2) {
+        return Ranking.compareStable(score, t, i1, i2) < 0;
+    }
+
+    // ---------- Cached inputs ----------
+    private double total(int i) {
+        return Math.min(ScoringPolicy.boost(linear[i], boostTable, mask[i]), policy.cap);
+    }
+
+    // Weighted feature sum in FEATURES order, as Admissions adds it.
+    private void linear() {
+        double[] w = policy.weight;
+        for (int i = 0; i < linear.length; i++) {
+            double s = 0.0;
+            for (int f = 0; f < feature.length; f++) s += feature[f][i] * w[f];
+            linear[i] = s;
+        }
+    }
+
+    private void normalize(int f) {
+        double s = policy.scale[f];
+        double[] x = feature[f];
+        switch (ScoringPolicy.FEATURES[f]) {
+            case "gpa":   for (int i = 0; i < x.length; i++) x[i] = t.gpa[i] / s; break;
+            case "test":  for (int i = 0; i < x.length; i++) x[i] = t.test[i] / s; break;
+            case "extra": for (int i = 0; i < x.length; i++) x[i] = t.extra[i] / s; break;
+            case "essay": for (int i = 0; i < x.length; i++) x[i] = t.essay[i] / s; break;
+            default:      for (int i = 0; i < x.length; i++) x[i] = t.rec[i] / s;
+        }
+    }
+
+    private void masks() {
+        for (int i = 0; i < mask.length; i++) {
+            mask[i] = (byte) ((t.flags[i] & 15) | (t.income[i] < policy.lowIncomeBelow ? ScoringPolicy.LOW_INCOME : 0));
+        }
+    }
+}
@@ -0,0 +1,175 @@
+// ResultsWriter.java
+// Writes results.csv rows into a reusable byte buffer flushed through a FileChannel.
+// Output is byte-identical to the PrintWriter.printf version it replaces.
+
+import java.io.*;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.Charset;
+import java.text.DecimalFormatSymbols;
+import java.util.Locale;
+
+class ResultsWriter implements Closeable {
+
+    static final String HEADER =
+            "name,gpa,test,income,legacy,firstGen,disability,blindScore,awareScore,admitBlind,admitAware,rankBlind,rankAware";
+    static final String ROW_FORMAT = "%s,%.2f,%d,%.2f,%s,%s,%s,%.4f,%.4f,%s,%s,%s,%s%n";
+
+    // Hand formatting assumes ASCII digits and '.', as printf uses in most locales;
+    // anything else formats whole rows with ROW_FORMAT instead.
+    private static final boolean PLAIN_LOCALE = plainLocale();
+
+    private static final long[] POW10 = { 1, 10, 100, 1000, 10000 };
+    private static final Charset CHARSET = Charset.defaultCharset(); // what FileWriter used
+    private static final byte[] NEWLINE = System.lineSeparator().getBytes(CHARSET);
+
+    private final FileOutputStream out;
+    private final FileChannel ch;
+    private final byte[] buf = new byte[1 << 16];
+    private final ByteBuffer wrapped = ByteBuffer.wrap(buf);
+    private int pos;
+
+    ResultsWriter(String path) throws IOException {
+        out = new FileOutputStream(path);
+        ch = out.getChannel();
+        text(HEADER);
+        newline();
+    }
+
+    private static boolean plainLocale() {
+        DecimalFormatSymbols dfs = DecimalFormatSymbols.getInstance(Locale.getDefault(Locale.Category.FORMAT));
+        return dfs.getZeroDigit() == '0' && dfs.getDecimalSeparator() == '.' && dfs.getMinusSign() == '-';
+    }
+
+    void row(String name, double gpa, int test, double income,
+             boolean legacy, boolean firstGen, boolean disability,
+             double blind, double aware, boolean admitBlind, boolean admitAware,
+             int rankBlind, int rankAware) throws IOException {
+        if (!PLAIN_LOCALE) {
+            text(String.format(ROW_FORMAT, name, gpa, test, income, legacy, firstGen, disability,
+                    blind, aware, admitBlind, admitAware, rankText(rankBlind), rankText(rankAware)));
+            return;
+        }
+        text(name);
+        ensure(256);
+        comma(); fixed(gpa, 2);
+        comma(); integer(test);
+        comma(); fixed(income, 2);
+        comma(); bool(legacy);
+        comma(); bool(firstGen);
+        comma(); bool(disability);
+        comma(); fixed(blind, 4);
+        comma(); fixed(aware, 4);
+        comma(); bool(admitBlind);
+        comma(); bool(admitAware);
+        comma(); rank(rankBlind);
+        comma(); rank(rankAware);
+        newline();
+    }
+
+    static String rankText(int rank) {
+        return rank == Ranking.UNRANKED ? "unranked" : String.valueOf(rank);
+    }
+
+    // ---------- Formatting ----------
+    private void ensure(int n) throws IOException {
+        if (buf.length - pos < n) flush();
+    }
+
+    private void comma() {
+        buf[pos++] = ',';
+    }
+
+    private void newline() throws IOException {
+        ensure(NEWLINE.length);
+        for (byte b : NEWLINE) buf[pos++] = b;
+    }
+
+    private void bool(boolean v) {
+        ascii(v ? "true" : "false");
+    }
+
+    private void rank(int rank) {
+        if (rank == Ranking.UNRANKED) ascii("unranked");
+        else integer(rank);
+    }
+
+    // Only for short ASCII text; callers have ensured room.
+    private void ascii(String s) {
+        for (int i = 0; i < s.length(); i++) buf[pos++] = (byte) s.charAt(i);
+    }
+
+    private void text(String s) throws IOException {
+        boolean asciiOnly = s.length() <= 1024;
+        for (int i = 0; asciiOnly && i < s.length(); i++) asciiOnly = s.charAt(i) < 0x80;
+        if (asciiOnly) {
+            ensure(s.length());
+            ascii(s);
+            return;
+        }
+        byte[] b = s.getBytes(CHARSET);
+        if (b.length > buf.length - pos) flush();
+        if (b.length > buf.length) {
+            ch.write(ByteBuffer.wrap(b));
+            return;
+        }
+        System.arraycopy(b, 0, buf, pos, b.length);
+        pos += b.length;
+    }
+
+    private void integer(long v) {
+        if (v < 0) {
+            if (v == Long.MIN_VALUE) { ascii(Long.toString(v)); return; }
+            buf[pos++] = '-';
+            v = -v;
+        }
+        int start = pos;
+        do {
+            buf[pos++] = (byte) ('0' + v % 10);
+            v /= 10;
+        } while (v > 0);
+        for (int i = start, j = pos - 1; i < j; i++, j--) {
+            byte t = buf[i];
+            buf[i] = buf[j];
+            buf[j] = t;
+        }
+    }
+
+    // %.Nf rounds the decimal digits Double.toString gives v, HALF_UP. At a tie, those
+    // digits are the tie itself, (w + 0.5) / 10^N, exactly when its nearest double is |v|;
+    // otherwise they fall on the same side of the tie as |v|. So comparing |v| with the
+    // tie's correctly rounded double (one IEEE division of exact operands) rounds ties
+    // like printf without making digits. Only huge and non-finite values use String.format.
+    private void fixed(double v, int decimals) throws IOException {
+        long pow = POW10[decimals];
+        double a = Math.abs(v);
+        double x = a * pow;
+        if (x < 1e9) {
+            long w = (long) x; // next to an integer x may round up to it; the tie test still decides right
+            long units = w + (a >= (2 * w + 1) / (2.0 * pow) ? 1 : 0);
+            if (Double.doubleToRawLongBits(v) < 0) buf[pos++] = '-';
+            integer(units / pow);
+            buf[pos++] = '.';
+            long f = units % pow;
+            for (long p = pow / 10; p > 0; p /= 10) buf[pos++] = (byte) ('0' + (f / p) % 10);
+            return;
+        }
+        text(String.format("%." + decimals + "f", v));
+        ensure(256); // room for the rest of the row
+    }
+
+    void flush() throws IOException {
+        wrapped.clear().limit(pos);
+        while (wrapped.hasRemaining()) ch.write(wrapped);
+        pos = 0;
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            out.close();
+        }
+    }
+}
@@ -0,0 +1,29 @@
+// ScoringModel.java
+// A scoring function over ApplicantTable rows. BLIND and AWARE are the hand-written
+// Admissions models; load() compiles a ScoringPolicy file into an equivalent evaluator.
+
+import java.io.IOException;
+
+@FunctionalInterface
+public interface ScoringModel {
+
+    double score(ApplicantTable t, int i);
+
+    default void scores(ApplicantTable t, double[] out) {
+        for (int i = 0; i < out.length; i++) out[i] = score(t, i);
+    }
+
+    ScoringModel BLIND = new ScoringModel() {
+        public double score(ApplicantTable t, int i) { return Admissions.blindScore(t, i); }
+        public void scores(ApplicantTable t, double[] out) { Admissions.blindScores(t, out); }
+    };
+
+    ScoringModel AWARE = new ScoringModel() {
+        public double score(ApplicantTable t, int i) { return Admissions.awareScore(t, i); }
+        public void scores(ApplicantTable t, double[] out) { Admissions.awareScores(t, out); }
+    };
+
+    static ScoringModel load(String path) throws IOException {
+        return ScoringPolicy.load(path).compile();
+    }
+}
@@ -0,0 +1,214 @@
+// ScoringPolicy.java
+// Weights, normalizers and boosts of a linear scoring model, loadable from a properties file:
+//
+//   weight.gpa=0.4          scale.gpa=4.0       feature term: (value / scale) * weight
+//   weight.test=0.3         scale.test=1600
+//   weight.extra=0.1        weight.essay=0.1    weight.rec=0.1
+//   boost.lowIncome=0.05    lowIncome.below=40000
+//   boost.firstGen=0.05     boost.disability=0.03   boost.legacy=0.02   boost.local=0.03
+//   cap=1.0
+//
+// Missing weights and boosts are 0 (the term is left out), scales default to 1, and
+// without cap the score is not capped. Features and boosts apply in the order listed
+// above, which is the order Admissions uses, so blind() and aware() reproduce it bit for bit.
+
+import java.io.*;
+import java.util.*;
+
+public class ScoringPolicy {
+
+    static final String[] FEATURES = { "gpa", "test", "extra", "essay", "rec" };
+    static final String[] BOOSTS = { "lowIncome", "firstGen", "disability", "legacy", "local" };
+
+    // ApplicantTable flag bit behind each boost; lowIncome is computed from income.
+    static final int[] BOOST_FLAGS = { 0, ApplicantTable.FIRST_GEN, ApplicantTable.DISABILITY,
+            ApplicantTable.LEGACY, ApplicantTable.LOCAL };
+
+    final double[] weight = new double[FEATURES.length];
+    final double[] scale = new double[FEATURES.length];
+    final double[] boost = new double[BOOSTS.length];
+    double lowIncomeBelow = 40000;
+    double cap = Double.POSITIVE_INFINITY;
+
+    ScoringPolicy() {
+        Arrays.fill(scale, 1.0);
+    }
+
+    // Admissions.blindScore
+    static ScoringPolicy blind() {
+        ScoringPolicy p = new ScoringPolicy();
+        p.weight[0] = 0.4;
+        p.scale[0] = 4.0;
+        p.weight[1] = 0.3;
+        p.scale[1] = 1600.0;
+        p.weight[2] = 0.1;
+        p.weight[3] = 0.1;
+        p.weight[4] = 0.1;
+        return p;
+    }
+
+    // Admissions.awareScore
+    static ScoringPolicy aware() {
+        ScoringPolicy p = blind();
+        p.boost[0] = 0.05;
+        p.boost[1] = 0.05;
+        p.boost[2] = 0.03;
+        p.boost[3] = 0.02;
+        p.boost[4] = 0.03;
+        p.cap = 1.0;
+        return p;
+    }
+
+    ScoringPolicy copy() {
+        ScoringPolicy p = new ScoringPolicy();
+        System.arraycopy(weight, 0, p.weight, 0, weight.length);
+        System.arraycopy(scale, 0, p.scale, 0, scale.length);
+        System.arraycopy(boost, 0, p.boost, 0, boost.length);
+        p.lowIncomeBelow = lowIncomeBelow;
+        p.cap = cap;
+        return p;
+    }
+
+    // ---------- Loading ----------
+    static ScoringPolicy load(String path) throws IOException {
+        Properties props = new Properties();
+        try (Reader r = new FileReader(path)) {
+            props.load(r);
+        }
+        return from(props);
+    }
+
+    static ScoringPolicy from(Properties props) {
+        ScoringPolicy p = new ScoringPolicy();
+        for (String key : props.stringPropertyNames()) p.set(key, props.getProperty(key));
+        return p;
+    }
+
+    void set(String key, String value) {
+        double v;
+        try {
+            v = Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalArgumentException("Not a number: " + key + "=" + value);
+        }
+        int dot = key.indexOf('.');
+        String kind = dot < 0 ? key : key.substring(0, dot), name = dot < 0 ? "" : key.substring(dot + 1);
+        if (key.equals("cap")) cap = v;
+        else if (key.equals("lowIncome.below")) lowIncomeBelow = v;
+        else if (kind.equals("weight")) weight[index(FEATURES, name, key)] = v;
+        else if (kind.equals("scale")) scale[index(FEATURES, name, key)] = v;
+        else if (kind.equals("boost")) boost[index(BOOSTS, name, key)] = v;
+        else throw new IllegalArgumentException("Unknown scoring key: " + key);
+    }
+
+    private static int index(String[] names, String name, String key) {
+        for (int i = 0; i < names.length; i++) if (names[i].equals(name)) return i;
+        throw new IllegalArgumentException("Unknown scoring key: " + key);
+    }
+
+    // ---------- Boost table ----------
+    // Boost mask bit for income < lowIncomeBelow, next to the four ApplicantTable flag bits.
+    static final int LOW_INCOME = ApplicantTable.LOW_INCOME;
+
+    // Boost amounts for each of the 32 masks of LOW_INCOME and the flag bits, in BOOSTS
+    // order: boostTable()[mask * BOOSTS.length + b] is boost b, or 0.0 if mask lacks its bit.
+    double[] boostTable() {
+        int k = BOOSTS.length;
+        double[] table = new double[32 * k];
+        for (int m = 0; m < 32; m++) {
+            if ((m & LOW_INCOME) != 0) table[m * k] = boost[0];
+            for (int b = 1; b < k; b++) if ((m & BOOST_FLAGS[b]) != 0) table[m * k + b] = boost[b];
+        }
+        return table;
+    }
+
+    // score plus the boosts that mask selects, added one at a time in Admissions' order
+    // so the result rounds exactly like its if-chain. A clear bit adds 0.0, which leaves
+    // a score unchanged (scores start from +0.0, so they are never -0.0).
+    static double boost(double score, double[] table, int mask) {
+        int k = mask * 5;
+        return score + table[k] + table[k + 1] + table[k + 2] + table[k + 3] + table[k + 4];
+    }
+
+    // ---------- Compiling ----------
+    // score() is a chain of small lambdas, one per non-zero feature in order, each
+    // capturing its column, weight and scale as constants, then the boosts of the row's
+    // mask from boostTable() and the cap. scores() does the same as one fused feature loop
+    // over the batch plus Admissions' table pass, so nothing is dispatched or branched on
+    // per row. Both give the same scores as Admissions for the built-in policies.
+    @FunctionalInterface
+    interface Term {
+        double add(ApplicantTable t, int i, double score);
+    }
+
+    ScoringModel compile() {
+        double[] w = weight.clone(), sc = scale.clone(), table = boostTable();
+        double below = lowIncomeBelow, max = cap;
+        boolean boosted = max != Double.POSITIVE_INFINITY;
+        for (double v : boost) boosted |= v != 0;
+        boolean withBoosts = boosted;
+
+        Term chain = (t, i, s) -> s;
+        for (int f = 0; f < FEATURES.length; f++) {
+            if (weight[f] != 0) chain = then(chain, feature(f, scale[f], weight[f]));
+        }
+        if (withBoosts) {
+            chain = then(chain, below == ApplicantTable.LOW_INCOME_BELOW
+                    ? (t, i, s) -> Math.min(boost(s, table, t.flags[i] & 31), max)
+                    : (t, i, s) -> Math.min(boost(s, table, (t.flags[i] & 15) | (t.income[i] < below ? LOW_INCOME : 0)), max));
+        }
+        Term row = chain;
+        return new ScoringModel() {
+            public double score(ApplicantTable t, int i) {
+                return row.add(t, i, 0.0);
+            }
+
+            public void scores(ApplicantTable t, double[] out) {
+                features(t, out, w, sc);
+                if (!withBoosts) return;
+                if (below == ApplicantTable.LOW_INCOME_BELOW) Admissions.awareScores(out, t.flags, table, max, out);
+                else boosts(t, out, table, below, max);
+            }
+        };
+    }
+
+    private static Term then(Term first, Term next) {
+        return (t, i, s) -> next.add(t, i, first.add(t, i, s));
+    }
+
+    private static Term feature(int f, double scale, double w) {
+        switch (FEATURES[f]) {
+            case "gpa":   return (t, i, s) -> s + (t.gpa[i] / scale) * w;
+            case "test":  return (t, i, s) -> s + (t.test[i] / scale) * w;
+            case "extra": return (t, i, s) -> s + (t.extra[i] / scale) * w;
+            case "essay": return (t, i, s) -> s + (t.essay[i] / scale) * w;
+            default:      return (t, i, s) -> s + (t.rec[i] / scale) * w;
+        }
+    }
+
+    private static void features(ApplicantTable t, double[] out, double[] w, double[] sc) {
+        double[] gpa = t.gpa, extra = t.extra, essay = t.essay, rec = t.rec;
+        int[] test = t.test;
+        double w0 = w[0], w1 = w[1], w2 = w[2], w3 = w[3], w4 = w[4];
+        double s0 = sc[0], s1 = sc[1], s2 = sc[2], s3 = sc[3], s4 = sc[4];
+        for (int i = 0; i < out.length; i++) {
+            double score = 0.0;
+            score += (gpa[i] / s0) * w0;
+            score += (test[i] / s1) * w1;
+            score += (extra[i] / s2) * w2;
+            score += (essay[i] / s3) * w3;
+            score += (rec[i] / s4) * w4;
+            out[i] = score;
+        }
+    }
+
+    // Table lookup with the low-income bit recomputed for a non-default threshold.
+    private static void boosts(ApplicantTable t, double[] out, double[] table, double below, double cap) {
+        double[] income = t.income;
+        byte[] flags = t.flags;
+        for (int i = 0; i < out.length; i++) {
+            int mask = (flags[i] & 15) | (income[i] < below ? LOW_INCOME : 0);
+            out[i] = Math.min(boost(out[i], table, mask), cap);
+        }
+    }
+}
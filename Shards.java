@@ -0,0 +1,116 @@
+// Shards.java
+// Input split over several CSV files, e.g. one per regional office. A directory or a glob
+// names the shards; they are parsed concurrently and concatenated in shard order (sorted
+// path order), each keeping its row order, so rankings and tie-breaks don't depend on
+// which shard finished first.
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+public class Shards {
+
+    static final class Shard {
+        final String file;
+        ApplicantTable table = new ApplicantTable();
+        int rows, malformed;
+        String error;          // why the shard couldn't be read, or null
+
+        Shard(String file) {
+            this.file = file;
+        }
+    }
+
+    // ---------- Resolving ----------
+    private static final String[] EXTENSIONS = { ".csv", ".gz", ".gzip", ".deflate", ".zz" };
+
+    static boolean isGlob(String spec) {
+        return spec.chars().anyMatch(c -> c == '*' || c == '?' || c == '[' || c == '{');
+    }
+
+    // The files a spec names, sorted: a directory's CSV (and compressed CSV) files, the files
+    // matching a glob such as offices/*.csv or exports/**/*.csv.gz, or else the spec itself.
+    static List<String> resolve(String spec) throws IOException {
+        if (isGlob(spec)) return glob(spec);
+        Path dir = Paths.get(spec);
+        if (!Files.isDirectory(dir)) return List.of(spec);
+        try (Stream<Path> files = Files.list(dir)) {
+            return files.filter(Files::isRegularFile).filter(Shards::isInput)
+                    .map(Path::toString).sorted().collect(Collectors.toList());
+        }
+    }
+
+    private static boolean isInput(Path p) {
+        String name = p.getFileName().toString().toLowerCase(Locale.ROOT);
+        for (String ext : EXTENSIONS) if (name.endsWith(ext)) return true;
+        return false;
+    }
+
+    // Walks from the glob's fixed leading directories, as deep as the pattern reaches.
+    private static List<String> glob(String spec) throws IOException {
+        Path pattern = Paths.get(spec);
+        Path dir = pattern.getRoot() == null ? Paths.get("") : pattern.getRoot();
+        int fixed = 0;
+        for (; fixed < pattern.getNameCount() - 1 && !isGlob(pattern.getName(fixed).toString()); fixed++) {
+            dir = dir.resolve(pattern.getName(fixed));
+        }
+        Path rest = pattern.subpath(fixed, pattern.getNameCount());
+        int depth = rest.toString().contains("**") ? Integer.MAX_VALUE : rest.getNameCount();
+        PathMatcher matcher = FileSystems.getDefault().getPathMatcher("glob:" + rest);
+        Path from = dir;
+        if (!Files.isDirectory(from.toString().isEmpty() ? Paths.get(".") : from)) return List.of();
+        try (Stream<Path> files = Files.walk(from, depth)) {
+            return files.filter(Files::isRegularFile).filter(p -> matcher.matches(from.relativize(p)))
+                    .map(Path::toString).sorted().collect(Collectors.toList());
+        }
+    }
+
+    // ---------- Reading ----------
+    // Parses every shard, up to 'threads' at once (each shard itself on one thread), then
+    // reports unreadable shards and concatenates in shard order. Platform threads in a
+    // fixed pool: shard parsing is CPU-bound, so more threads than cores buys nothing.
+    // Reject sources are opened in shard order, so the rejects sample follows it too.
+    static ApplicantTable read(List<Shard> shards, int threads, RejectSink rejects) {
+        ExecutorService pool = Executors.newFixedThreadPool(Math.max(1, Math.min(threads, shards.size())));
+        try {
+            List<Future<?>> done = new ArrayList<>();
+            for (Shard s : shards) {
+                RejectSink.Source source = rejects.source(s.file);
+                done.add(pool.submit(() -> {
+                    try {
+                        MappedCsvReader.Chunk c = MappedCsvReader.read(s.file, 1, source);
+                        s.table = c.table;
+                        s.rows = c.table.size();
+                        s.malformed = c.malformed;
+                    } catch (IOException e) {
+                        s.error = e.getMessage();
+                    }
+                }));
+            }
+            for (Future<?> f : done) f.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException("Shard ingestion failed", e.getCause() != null ? e.getCause() : e);
+        } finally {
+            pool.shutdown();
+        }
+
+        List<ApplicantTable> parts = new ArrayList<>();
+        for (Shard s : shards) {
+            if (s.error != null) System.out.println("Error reading file " + s.file + ": " + s.error);
+            parts.add(s.table);
+        }
+        return ApplicantTable.concat(parts);
+    }
+
+    static void print(List<Shard> shards) {
+        System.out.println("=== Input Shards ===");
+        for (Shard s : shards) {
+            if (s.error != null) System.out.printf("%s: unreadable%n", s.file);
+            else System.out.printf("%s: %d rows, %d malformed%n", s.file, s.rows, s.malformed);
+        }
+        System.out.println();
+    }
+}
@@ -0,0 +1,106 @@
+// Stages.java
+// Per-stage wall time, CPU time, main-thread allocation and row counts for one pipeline run.
+//
+//   Stages stages = new Stages();
+//   try (Stages.Scope s = stages.start("load")) { ...; s.rows(n); }
+//   stages.printSummary();
+//
+// CPU time is for the whole process (so worker threads count); allocated bytes are
+// for the calling thread only, which is all ThreadMXBean can report reliably here (pool
+// threads that end inside a stage take their counts with them), hence "main" in the
+// column and JSON key.
+
+import java.io.*;
+import java.lang.management.ManagementFactory;
+import java.util.*;
+
+public class Stages {
+
+    static final class Stage {
+        final String name;
+        long rows = -1;
+        long wallNanos, cpuNanos, mainAllocBytes;
+
+        Stage(String name) {
+            this.name = name;
+        }
+    }
+
+    final class Scope implements AutoCloseable {
+        private final Stage stage;
+        private final long wall0, cpu0, alloc0;
+
+        private Scope(Stage stage) {
+            this.stage = stage;
+            this.wall0 = System.nanoTime();
+            this.cpu0 = processCpuNanos();
+            this.alloc0 = threadAllocatedBytes();
+        }
+
+        void rows(long rows) {
+            stage.rows = rows;
+        }
+
+        @Override
+        public void close() {
+            stage.wallNanos += System.nanoTime() - wall0;
+            stage.cpuNanos += processCpuNanos() - cpu0;
+            stage.mainAllocBytes += threadAllocatedBytes() - alloc0;
+        }
+    }
+
+    private final List<Stage> stages = new ArrayList<>();
+
+    Scope start(String name) {
+        Stage s = new Stage(name);
+        stages.add(s);
+        return new Scope(s);
+    }
+
+    void printSummary() {
+        System.out.println("\nStage        |     rows |  wall ms |   cpu ms | main alloc MB");
+        long wall = 0, cpu = 0, alloc = 0;
+        for (Stage s : stages) {
+            System.out.printf("  %-10s | %8s | %8.1f | %8.1f | %13.1f%n", s.name,
+                    s.rows < 0 ? "-" : String.valueOf(s.rows), s.wallNanos / 1e6, s.cpuNanos / 1e6, s.mainAllocBytes / 1e6);
+            wall += s.wallNanos;
+            cpu += s.cpuNanos;
+            alloc += s.mainAllocBytes;
+        }
+        System.out.printf("  %-10s | %8s | %8.1f | %8.1f | %13.1f%n", "total", "", wall / 1e6, cpu / 1e6, alloc / 1e6);
+    }
+
+    void writeJson(String path) {
+        StringBuilder sb = new StringBuilder("{\"stages\":[");
+        for (int i = 0; i < stages.size(); i++) {
+            Stage s = stages.get(i);
+            if (i > 0) sb.append(',');
+            sb.append(String.format(Locale.ROOT,
+                    "{\"name\":\"%s\",\"rows\":%d,\"wallMs\":%.3f,\"cpuMs\":%.3f,\"mainThreadAllocBytes\":%d}",
+                    s.name, s.rows, s.wallNanos / 1e6, s.cpuNanos / 1e6, s.mainAllocBytes));
+        }
+        sb.append("]}\n");
+        try (Writer w = new FileWriter(path)) {
+            w.write(sb.toString());
+        } catch (IOException e) {
+            System.out.println("Could not write " + path + ": " + e.getMessage());
+        }
+    }
+
+    // ---------- Counters ----------
+    private static long processCpuNanos() {
+        java.lang.management.OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (os instanceof com.sun.management.OperatingSystemMXBean) {
+            return ((com.sun.management.OperatingSystemMXBean) os).getProcessCpuTime();
+        }
+        return 0;
+    }
+
+    private static long threadAllocatedBytes() {
+        java.lang.management.ThreadMXBean mx = ManagementFactory.getThreadMXBean();
+        if (mx instanceof com.sun.management.ThreadMXBean) {
+            return ((com.sun.management.ThreadMXBean) mx).getThreadAllocatedBytes(Thread.currentThread().getId());
+        }
+        return 0;
+    }
+}
@@ -0,0 +1,353 @@
+// Sweep.java
+// Scores many policies in one pass over the applicant columns and reports, per policy,
+// the admit rate and the admit rate of every fairness group with its parity gap.
+//
+// Sweep file: one policy per line, as ScoringPolicy key=value overrides on top of the
+// aware model (or the blind one when the line starts with "blind"). A comma list of
+// values expands the line into a grid; '#' starts a comment.
+//
+//   weight.essay=0.05,0.1,0.15 boost.legacy=0,0.02
+//   blind weight.test=0.2 weight.essay=0.2
+
+import java.io.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+public class Sweep {
+
+    static final int BLOCK = 1024;   // rows per block, reused by every policy of a partition
+
+    static final class Policy {
+        final String spec;
+        final ScoringPolicy policy;
+
+        Policy(String spec, ScoringPolicy policy) {
+            this.spec = spec;
+            this.policy = policy;
+        }
+    }
+
+    static final class Result {
+        final Policy policy;
+        int admits;
+        final int[] groupAdmits;   // indexed like Groups.size
+
+        Result(Policy policy, int groups) {
+            this.policy = policy;
+            this.groupAdmits = new int[groups];
+        }
+    }
+
+    // ---------- Sweep file ----------
+    static List<Policy> load(String path) throws IOException {
+        List<Policy> policies = new ArrayList<>();
+        for (String line : Files.readAllLines(Paths.get(path))) {
+            int hash = line.indexOf('#');
+            if (hash >= 0) line = line.substring(0, hash);
+            line = line.trim();
+            if (line.isEmpty()) continue;
+            List<String> tokens = new ArrayList<>(Arrays.asList(line.split("\\s+")));
+            boolean blind = tokens.get(0).equals("blind");
+            if (blind || tokens.get(0).equals("aware")) tokens.remove(0);
+            expand(blind, tokens, 0, new ArrayList<>(), policies);
+        }
+        return policies;
+    }
+
+    private static void expand(boolean blind, List<String> tokens, int k, List<String> chosen, List<Policy> out) {
+        if (k == tokens.size()) {
+            ScoringPolicy p = blind ? ScoringPolicy.blind() : ScoringPolicy.aware();
+            for (String kv : chosen) {
+                int eq = kv.indexOf('=');
+                p.set(kv.substring(0, eq), kv.substring(eq + 1));
+            }
+            String spec = (blind ? "blind " : "") + String.join(" ", chosen);
+            out.add(new Policy(spec.isEmpty() ? "aware" : spec.trim(), p));
+            return;
+        }
+        String token = tokens.get(k);
+        int eq = token.indexOf('=');
+        if (eq <= 0) throw new IllegalArgumentException("Expected key=value: " + token);
+        for (String v : token.substring(eq + 1).split(",")) {
+            chosen.add(token.substring(0, eq + 1) + v);
+            expand(blind, tokens, k + 1, chosen, out);
+            chosen.remove(chosen.size() - 1);
+        }
+    }
+
+    // ---------- Groups ----------
+    // Every group of every dimension numbered 0..size-1; of[d][i] is row i's number in dimension d.
+    static final class Groups {
+        final List<Fairness.Dimension> dims;
+        final String[][] labels;
+        final int[] offset;
+        final int[][] of;
+        final int[] size;
+
+        Groups(List<Fairness.Dimension> dims, ApplicantTable t) {
+            int n = t.size(), total = 0;
+            this.dims = dims;
+            labels = new String[dims.size()][];
+            offset = new int[dims.size()];
+            of = new int[dims.size()][n];
+            for (int d = 0; d < dims.size(); d++) {
+                labels[d] = dims.get(d).labels(t);
+                offset[d] = total;
+                total += labels[d].length;
+            }
+            size = new int[total];
+            for (int d = 0; d < dims.size(); d++) {
+                Fairness.Dimension dim = dims.get(d);
+                for (int i = 0; i < n; i++) {
+                    of[d][i] = offset[d] + dim.group(t, i);
+                    size[of[d][i]]++;
+                }
+            }
+        }
+    }
+
+    // ---------- Scoring ----------
+    // Admission is by cutoff when cutoff != null, else the K best rows in the same order
+    // Ranking uses (score, then test, GPA and name). Policies are split into partitions
+    // that each make their own pass over the rows on the given number of threads.
+    static Result[] run(ApplicantTable t, List<Policy> policies, int K, Double cutoff,
+                        Groups groups, int threads) {
+        int p = policies.size();
+        Result[] results = new Result[p];
+        for (int q = 0; q < p; q++) results[q] = new Result(policies.get(q), groups.size.length);
+
+        int parts = Math.min(p, Math.max(1, threads) * 4);
+        List<Callable<Void>> tasks = new ArrayList<>();
+        for (int part = 0; part < parts; part++) {
+            int from = (int) ((long) p * part / parts), to = (int) ((long) p * (part + 1) / parts);
+            tasks.add(() -> {
+                score(t, Arrays.copyOfRange(results, from, to), K, cutoff, groups);
+                return null;
+            });
+        }
+        ForkJoinPool pool = new ForkJoinPool(Math.max(1, threads));
+        try {
+            for (Future<Void> f : pool.invokeAll(tasks)) f.get();
+        } catch (InterruptedException | ExecutionException e) {
+            throw new IllegalStateException(e.getCause() != null ? e.getCause() : e);
+        } finally {
+            pool.shutdown();
+        }
+        return results;
+    }
+
+    // The block loop is a blocked matrix product: BLOCK rows of the five normalized feature
+    // columns times one weight per feature and policy, plus the boosts of each row's mask
+    // (ScoringPolicy.boost) and the cap. Each block is normalized once per distinct scale
+    // (x / scale, as Rescorer.normalize) and the terms are summed in FEATURES order, so every
+    // score is the one Admissions and ScoringPolicy compute.
+    private static void score(ApplicantTable t, Result[] results, int K, Double cutoff,
+                              Groups groups) {
+        int n = t.size(), p = results.length, features = ScoringPolicy.FEATURES.length;
+        double[][] weight = new double[p][];
+        double[][] boost = new double[p][];
+        double[] below = new double[p], cap = new double[p];
+        for (int q = 0; q < p; q++) {
+            ScoringPolicy s = results[q].policy.policy;
+            weight[q] = s.weight.clone();
+            boost[q] = s.boostTable();
+            below[q] = s.lowIncomeBelow;
+            cap[q] = s.cap;
+        }
+        // norm[f][j] is the current block of feature f over scales[f][j]; slot[q][f] picks j.
+        double[][] scales = new double[features][];
+        int[][] slot = new int[p][features];
+        double[][][] norm = new double[features][][];
+        for (int f = 0; f < features; f++) {
+            List<Double> distinct = new ArrayList<>();
+            for (int q = 0; q < p; q++) {
+                Double sc = results[q].policy.policy.scale[f];
+                int j = distinct.indexOf(sc);
+                if (j < 0) {
+                    j = distinct.size();
+                    distinct.add(sc);
+                }
+                slot[q][f] = j;
+            }
+            scales[f] = new double[distinct.size()];
+            for (int j = 0; j < scales[f].length; j++) scales[f][j] = distinct.get(j);
+            norm[f] = new double[scales[f].length][BLOCK];
+        }
+        Top[] top = new Top[p];
+        if (cutoff == null) for (int q = 0; q < p; q++) top[q] = new Top(Math.max(0, Math.min(K, n)), t);
+        double min = cutoff == null ? 0 : cutoff;
+
+        double[] income = t.income;
+        double[] score = new double[BLOCK];
+        int[] flags = new int[BLOCK];
+        for (int b0 = 0; b0 < n; b0 += BLOCK) {
+            int len = Math.min(BLOCK, n - b0);
+            for (int k = 0; k < len; k++) flags[k] = t.flags[b0 + k] & 15;
+            for (int f = 0; f < features; f++) {
+                for (int j = 0; j < scales[f].length; j++) normalize(t, f, scales[f][j], b0, len, norm[f][j]);
+            }
+            for (int q = 0; q < p; q++) {
+                double[] w = weight[q];
+                double w0 = w[0], w1 = w[1], w2 = w[2], w3 = w[3], w4 = w[4];
+                double[] x0 = norm[0][slot[q][0]], x1 = norm[1][slot[q][1]], x2 = norm[2][slot[q][2]],
+                        x3 = norm[3][slot[q][3]], x4 = norm[4][slot[q][4]];
+                double[] table = boost[q];
+                double lowBelow = below[q], max = cap[q];
+                for (int k = 0; k < len; k++) {
+                    int i = b0 + k;
+                    double s = 0.0;
+                    s += x0[k] * w0;
+                    s += x1[k] * w1;
+                    s += x2[k] * w2;
+                    s += x3[k] * w3;
+                    s += x4[k] * w4;
+                    int mask = flags[k] | (income[i] < lowBelow ? ScoringPolicy.LOW_INCOME : 0);
+                    score[k] = Math.min(ScoringPolicy.boost(s, table, mask), max);
+                }
+                if (cutoff == null) {
+                    Top best = top[q];
+                    for (int k = 0; k < len; k++) if (score[k] >= best.floor()) best.offer(score[k], b0 + k);
+                } else {
+                    Result r = results[q];
+                    for (int k = 0; k < len; k++) if (score[k] >= min) admit(r, groups, b0 + k);
+                }
+            }
+        }
+        if (cutoff == null) {
+            for (int q = 0; q < p; q++) for (int k = 0; k < top[q].size; k++) admit(results[q], groups, top[q].row[k]);
+        }
+    }
+
+    // out[k] = feature f of row b0 + k / scale.
+    private static void normalize(ApplicantTable t, int f, double scale, int b0, int len, double[] out) {
+        switch (ScoringPolicy.FEATURES[f]) {
+            case "gpa":   for (int k = 0; k < len; k++) out[k] = t.gpa[b0 + k] / scale; break;
+            case "test":  for (int k = 0; k < len; k++) out[k] = t.test[b0 + k] / scale; break;
+            case "extra": for (int k = 0; k < len; k++) out[k] = t.extra[b0 + k] / scale; break;
+            case "essay": for (int k = 0; k < len; k++) out[k] = t.essay[b0 + k] / scale; break;
+            default:      for (int k = 0; k < len; k++) out[k] = t.rec[b0 + k] / scale;
+        }
+    }
+
+    private static void admit(Result r, Groups groups, int i) {
+        r.admits++;
+        for (int[] of : groups.of) r.groupAdmits[of[i]]++;
+    }
+
+    // Bounded min-heap of the K best (score, row) pairs; the root is the worst kept.
+    private static final class Top {
+        final double[] score;
+        final int[] row;
+        final ApplicantTable t;
+        int size;
+
+        Top(int k, ApplicantTable t) {
+            score = new double[k];
+            row = new int[k];
+            this.t = t;
+        }
+
+        // Scores below this can't get in; nothing gets into an empty heap (K = 0).
+        double floor() {
+            if (size < score.length) return Double.NEGATIVE_INFINITY;
+            return score.length == 0 ? Double.POSITIVE_INFINITY : score[0];
+        }
+
+        private boolean worse(double s1, int r1, double s2, int r2) {
+            if (s1 != s2) return s1 < s2;
+            int c = Ranking.compareTies(t, r1, r2); // equal scores are rare; compare them directly
+            return c != 0 ? c > 0 : r1 > r2;
+        }
+
+        void offer(double s, int r) {
+            if (score.length == 0) return;
+            if (size < score.length) {
+                int c = size++;
+                while (c > 0) {
+                    int parent = (c - 1) >>> 1;
+                    if (!worse(s, r, score[parent], row[parent])) break;
+                    score[c] = score[parent];
+                    row[c] = row[parent];
+                    c = parent;
+                }
+                score[c] = s;
+                row[c] = r;
+                return;
+            }
+            if (!worse(score[0], row[0], s, r)) return;
+            int c = 0;
+            while (true) {
+                int l = 2 * c + 1, m = l + 1, w = c;
+                double ws = s;
+                int wr = r;
+                if (l < size && worse(score[l], row[l], ws, wr)) { w = l; ws = score[l]; wr = row[l]; }
+                if (m < size && worse(score[m], row[m], ws, wr)) w = m;
+                if (w == c) break;
+                score[c] = score[w];
+                row[c] = row[w];
+                c = w;
+            }
+            score[c] = s;
+            row[c] = r;
+        }
+    }
+
+    // ---------- Report ----------
+    // Largest gap between the admit rates of non-empty groups in dimension d, as Fairness prints it.
+    static double gap(Result r, Groups groups, int d) {
+        double max = Double.NEGATIVE_INFINITY, min = Double.POSITIVE_INFINITY;
+        for (int g = groups.offset[d]; g < groups.offset[d] + groups.labels[d].length; g++) {
+            if (groups.size[g] == 0) continue;
+            double rate = (double) r.groupAdmits[g] / groups.size[g];
+            max = Math.max(max, rate);
+            min = Math.min(min, rate);
+        }
+        return max - min;
+    }
+
+    static double maxGap(Result r, Groups groups) {
+        double max = 0;
+        for (int d = 0; d < groups.dims.size(); d++) max = Math.max(max, gap(r, groups, d));
+        return max;
+    }
+
+    static void print(Result[] results, Groups groups, int n) {
+        System.out.printf("Policies: %d%n", results.length);
+        Result[] byGap = results.clone();
+        Arrays.sort(byGap, Comparator.comparingDouble(r -> maxGap(r, groups)));
+        System.out.println("\nSmallest largest parity gap");
+        for (int k = 0; k < Math.min(5, byGap.length); k++) {
+            Result r = byGap[k];
+            System.out.printf("  gap %.3f  rate %.3f  %s%n", maxGap(r, groups), (double) r.admits / n, r.policy.spec);
+        }
+    }
+
+    static void writeCsv(String path, Result[] results, Groups groups, int n) throws IOException {
+        try (PrintWriter pw = new PrintWriter(new BufferedWriter(new FileWriter(path), 1 << 16))) {
+            StringBuilder header = new StringBuilder("policy,admits,admitRate");
+            for (int d = 0; d < groups.dims.size(); d++) {
+                header.append(",gap ").append(groups.dims.get(d).title.replace("By ", ""));
+                for (String label : groups.labels[d]) header.append(',').append(label.replace(",", ""));
+            }
+            pw.println(header);
+            for (Result r : results) {
+                StringBuilder row = new StringBuilder();
+                row.append('"').append(r.policy.spec.replace("\"", "\"\"")).append('"');
+                row.append(',').append(r.admits).append(',').append(fixed((double) r.admits / n));
+                for (int d = 0; d < groups.dims.size(); d++) {
+                    row.append(',').append(fixed(gap(r, groups, d)));
+                    for (int g = groups.offset[d]; g < groups.offset[d] + groups.labels[d].length; g++) {
+                        row.append(',');
+                        if (groups.size[g] > 0) row.append(fixed((double) r.groupAdmits[g] / groups.size[g]));
+                    }
+                }
+                pw.println(row);
+            }
+        }
+    }
+
+    private static String fixed(double v) {
+        return String.format(Locale.ROOT, "%.4f", v);
+    }
+}
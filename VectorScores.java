@@ -0,0 +1,72 @@
+// VectorScores.java
+// SIMD batch scoring on jdk.incubator.vector lanes. Optional: Admissions loads this class
+// by name and falls back to its scalar loop when it or the incubator module is missing.
+//   javac --add-modules jdk.incubator.vector *.java
+//   java  --add-modules jdk.incubator.vector Main
+
+import jdk.incubator.vector.*;
+
+class VectorScores implements Admissions.Batch {
+    private static final VectorSpecies<Double> D = DoubleVector.SPECIES_PREFERRED;
+    // int lanes matching D lane for lane, widened to double with I2D
+    private static final VectorSpecies<Integer> I =
+            VectorSpecies.of(int.class, VectorShape.forBitSize(D.length() * Integer.SIZE));
+    // flag bytes for D's lanes (at most 8) and a few past them, widened to double with B2D
+    private static final VectorSpecies<Byte> B = ByteVector.SPECIES_64;
+
+    public void blindScores(double[] gpa, int[] test, double[] extra, double[] essay, double[] rec,
+                            double[] out) {
+        int n = out.length, i = 0;
+        for (int upper = D.loopBound(n); i < upper; i += D.length()) {
+            blind(gpa, test, extra, essay, rec, i).intoArray(out, i);
+        }
+        for (; i < n; i++) out[i] = Admissions.ScalarBatch.blind(gpa[i], test[i], extra[i], essay[i], rec[i]);
+    }
+
+    public void awareScores(double[] gpa, int[] test, double[] extra, double[] essay, double[] rec,
+                            double[] income, byte[] flags, double[] out) {
+        blindScores(gpa, test, extra, essay, rec, out);
+        awareScores(out, income, flags, out);
+    }
+
+    public void awareScores(double[] blind, double[] income, byte[] flags, double[] out) {
+        int n = out.length, i = 0;
+        for (int upper = upper(n); i < upper; i += D.length()) {
+            aware(DoubleVector.fromArray(D, blind, i), income, flags, i).intoArray(out, i);
+        }
+        for (; i < n; i++) out[i] = Admissions.ScalarBatch.aware(blind[i], income[i], flags[i]);
+    }
+
+    // Vector loop bound for the aware loops: whole D blocks whose B-lane flag load stays in bounds.
+    private static int upper(int n) {
+        return Math.min(D.loopBound(n), Math.max(0, n - B.length() + 1));
+    }
+
+    // Same order as Admissions.awareScore: each boost is a masked add, then the cap
+    private static DoubleVector aware(DoubleVector score, double[] income, byte[] flags, int i) {
+        ByteVector f = ByteVector.fromArray(B, flags, i);
+        score = score.add(0.05, DoubleVector.fromArray(D, income, i).compare(VectorOperators.LT, 40000.0));
+        score = score.add(0.05, flag(f, ApplicantTable.FIRST_GEN));
+        score = score.add(0.03, flag(f, ApplicantTable.DISABILITY));
+        score = score.add(0.02, flag(f, ApplicantTable.LEGACY));
+        score = score.add(0.03, flag(f, ApplicantTable.LOCAL));
+        return score.min(1.0);
+    }
+
+    // Same operation order as Admissions.blindScore
+    private static DoubleVector blind(double[] gpa, int[] test, double[] extra, double[] essay, double[] rec, int i) {
+        DoubleVector t = (DoubleVector) IntVector.fromArray(I, test, i).convertShape(VectorOperators.I2D, D, 0);
+        return DoubleVector.zero(D)
+                .add(DoubleVector.fromArray(D, gpa, i).div(4.0).mul(0.4))
+                .add(t.div(1600.0).mul(0.3))
+                .add(DoubleVector.fromArray(D, extra, i).mul(0.1))
+                .add(DoubleVector.fromArray(D, essay, i).mul(0.1))
+                .add(DoubleVector.fromArray(D, rec, i).mul(0.1));
+    }
+
+    // Lanes whose flags have bit set, built in registers (a per-lane fromLong allocates on JDK 17).
+    private static VectorMask<Double> flag(ByteVector flags, int bit) {
+        DoubleVector set = (DoubleVector) flags.and((byte) bit).convertShape(VectorOperators.B2D, D, 0);
+        return set.compare(VectorOperators.NE, 0.0);
+    }
+}